@@ -0,0 +1,123 @@
+package com.workoutapp.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.workoutapp.model.UserPrincipal;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Bounded cache of token verification results keyed by token hash.
+ * Positive entries never outlive the token's expiry; negative entries
+ * are kept briefly so repeated bad tokens don't reach the database.
+ */
+@Component
+public class TokenCache {
+    private final Cache<ByteBuffer, Entry> cache;
+    private final Duration negativeTtl;
+
+    public TokenCache(@Value("${app.token-cache.max-size:10000}") long maxSize,
+                      @Value("${app.token-cache.ttl-seconds:60}") long ttlSeconds,
+                      @Value("${app.token-cache.negative-ttl-seconds:5}") long negativeTtlSeconds,
+                      MeterRegistry meterRegistry) {
+        this.negativeTtl = Duration.ofSeconds(negativeTtlSeconds);
+        Duration ttl = Duration.ofSeconds(ttlSeconds);
+
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<ByteBuffer, Entry>() {
+                    @Override
+                    public long expireAfterCreate(ByteBuffer key, Entry entry, long currentTime) {
+                        if (entry.isNegative()) {
+                            return negativeTtl.toNanos();
+                        }
+                        Duration remaining = Duration.between(LocalDateTime.now(), entry.getExpiry());
+                        if (remaining.isNegative()) {
+                            return 0;
+                        }
+                        return Math.min(remaining.toNanos(), ttl.toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(ByteBuffer key, Entry entry, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, entry, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(ByteBuffer key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "tokens");
+    }
+
+    /**
+     * Returns the cached result for a token hash, or empty on a miss.
+     * A negative entry means the token was recently looked up and not found.
+     */
+    public Optional<Entry> get(byte[] hash, String scope) {
+        ByteBuffer key = ByteBuffer.wrap(hash);
+        Entry entry = cache.getIfPresent(key);
+        if (entry == null || !entry.getScope().equals(scope)) {
+            return Optional.empty();
+        }
+        if (!entry.isNegative() && !entry.getExpiry().isAfter(LocalDateTime.now())) {
+            cache.invalidate(key);
+            return Optional.empty();
+        }
+        return Optional.of(entry);
+    }
+
+    public void put(byte[] hash, String scope, UserPrincipal principal, LocalDateTime expiry) {
+        cache.put(ByteBuffer.wrap(hash.clone()), new Entry(principal, expiry, scope));
+    }
+
+    public void putNegative(byte[] hash, String scope) {
+        cache.put(ByteBuffer.wrap(hash.clone()), new Entry(null, null, scope));
+    }
+
+    public void invalidateUser(Long userId, String scope) {
+        cache.asMap().values().removeIf(entry ->
+                !entry.isNegative() && userId.equals(entry.getPrincipal().getId())
+                        && entry.getScope().equals(scope));
+    }
+
+    public static final class Entry {
+        private final UserPrincipal principal;
+        private final LocalDateTime expiry;
+        private final String scope;
+
+        private Entry(UserPrincipal principal, LocalDateTime expiry, String scope) {
+            this.principal = principal;
+            this.expiry = expiry;
+            this.scope = scope;
+        }
+
+        public UserPrincipal getPrincipal() {
+            return principal;
+        }
+
+        public LocalDateTime getExpiry() {
+            return expiry;
+        }
+
+        public String getScope() {
+            return scope;
+        }
+
+        public boolean isNegative() {
+            return principal == null;
+        }
+    }
+}
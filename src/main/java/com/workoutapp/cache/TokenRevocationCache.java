@@ -0,0 +1,61 @@
+package com.workoutapp.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.workoutapp.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Per-user "tokens valid after" watermarks used to revoke signed tokens.
+ * Values are refreshed from the users table at most once per TTL, so other
+ * nodes observe a revocation within that window.
+ */
+@Component
+public class TokenRevocationCache {
+    private static final LocalDateTime NO_WATERMARK = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final UserRepository userRepository;
+    private final Cache<Long, Long> cache;
+
+    public TokenRevocationCache(UserRepository userRepository,
+                                @Value("${app.token.revocation-cache.max-size:100000}") long maxSize,
+                                @Value("${app.token.revocation-cache.ttl-seconds:30}") long ttlSeconds,
+                                MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "token_revocations");
+    }
+
+    public boolean isRevoked(Long userId, long issuedAtMillis) {
+        Long watermark = cache.getIfPresent(userId);
+        if (watermark == null) {
+            // Loaded outside the cache's compute lock so a JDBC call never pins a virtual thread's carrier
+            watermark = userRepository.findTokensValidAfter(userId, NO_WATERMARK)
+                    .map(TokenRevocationCache::toMillis)
+                    // Unknown users have no valid tokens
+                    .orElse(Long.MAX_VALUE);
+            cache.asMap().putIfAbsent(userId, watermark);
+        }
+        return issuedAtMillis <= watermark;
+    }
+
+    public void update(Long userId, LocalDateTime tokensValidAfter) {
+        cache.put(userId, toMillis(tokensValidAfter));
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
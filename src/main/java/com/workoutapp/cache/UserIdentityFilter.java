@@ -0,0 +1,63 @@
+package com.workoutapp.cache;
+
+import com.workoutapp.repository.UserRepository;
+import com.workoutapp.util.BloomFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.stream.Stream;
+
+/**
+ * Bloom filters over registered usernames and emails, seeded from the users
+ * table at startup and updated on every insert. A negative answer means the
+ * value is definitely free, so registration can skip the existence query.
+ * Until seeding finishes every value is reported as possibly taken.
+ */
+@Component
+@Slf4j
+public class UserIdentityFilter {
+    private final UserRepository userRepository;
+    private final BloomFilter usernames;
+    private final BloomFilter emails;
+    private volatile boolean ready;
+
+    public UserIdentityFilter(UserRepository userRepository,
+                              @Value("${app.user-filter.expected-users:1000000}") long expectedUsers,
+                              @Value("${app.user-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        this.usernames = new BloomFilter(expectedUsers, falsePositiveRate);
+        this.emails = new BloomFilter(expectedUsers, falsePositiveRate);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void seed() {
+        long count = 0;
+        try (Stream<Object[]> rows = userRepository.streamUsernamesAndEmails()) {
+            for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                usernames.add((String) row[0]);
+                emails.add((String) row[1]);
+                count++;
+            }
+        }
+        ready = true;
+        log.info("Seeded user identity filter with {} users", count);
+    }
+
+    public boolean mightHaveUsername(String username) {
+        return !ready || usernames.mightContain(username);
+    }
+
+    public boolean mightHaveEmail(String email) {
+        return !ready || emails.mightContain(email);
+    }
+
+    public void add(String username, String email) {
+        usernames.add(username);
+        emails.add(email);
+    }
+}
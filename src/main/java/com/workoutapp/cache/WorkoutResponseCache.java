@@ -0,0 +1,130 @@
+package com.workoutapp.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.workoutapp.dto.WorkoutResponse;
+import com.workoutapp.util.JsonResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Size- and TTL-bounded cache of serialized GET /workouts/{id} bodies along
+ * with their ETags. Loads happen outside the cache lock; an invalidation
+ * counter keeps a load that raced with an update from being cached.
+ */
+@Component
+public class WorkoutResponseCache {
+    private final Cache<Long, CachedWorkout> cache;
+    private final ObjectMapper objectMapper;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public WorkoutResponseCache(ObjectMapper objectMapper,
+                                @Value("${app.workout-cache.max-bytes:16777216}") long maxBytes,
+                                @Value("${app.workout-cache.ttl-seconds:60}") long ttlSeconds,
+                                MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Long id, CachedWorkout workout) -> workout.getBody().length)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "workouts");
+    }
+
+    public static String etagFor(Long id, Long version) {
+        return "\"" + Long.toString(id, 36) + "-" + Long.toString(version, 36) + "\"";
+    }
+
+    /**
+     * Returns the version encoded in a strong ETag for this workout, or null
+     * if the tag is weak, malformed or belongs to a different workout.
+     */
+    public static Long versionFromEtag(Long id, String etag) {
+        String prefix = "\"" + Long.toString(id, 36) + "-";
+        if (!etag.startsWith(prefix) || !etag.endsWith("\"") || etag.length() <= prefix.length() + 1) {
+            return null;
+        }
+        try {
+            return Long.parseLong(etag.substring(prefix.length(), etag.length() - 1), 36);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public CachedWorkout getIfPresent(Long id) {
+        return cache.getIfPresent(id);
+    }
+
+    public CachedWorkout get(Long id, Supplier<WorkoutResponse> loader) {
+        CachedWorkout cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return cached;
+        }
+
+        long before = invalidations.get();
+        WorkoutResponse workout = loader.get();
+        CachedWorkout loaded = new CachedWorkout(serialize(workout), etagFor(workout.getId(), workout.getVersion()));
+        cache.put(id, loaded);
+        if (invalidations.get() != before) {
+            cache.invalidate(id);
+        }
+        return loaded;
+    }
+
+    /**
+     * Evicts the workout now and again once the surrounding transaction commits,
+     * so a read that saw the old row can't leave it cached.
+     */
+    public void invalidate(Long id) {
+        invalidations.incrementAndGet();
+        cache.invalidate(id);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidations.incrementAndGet();
+                    cache.invalidate(id);
+                }
+            });
+        }
+    }
+
+    private byte[] serialize(WorkoutResponse workout) {
+        try {
+            return objectMapper.writeValueAsBytes(JsonResponse.of("workout", workout));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize workout", e);
+        }
+    }
+
+    public static final class CachedWorkout {
+        private final byte[] body;
+        private final String etag;
+
+        private CachedWorkout(byte[] body, String etag) {
+            this.body = body;
+            this.etag = etag;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+    }
+}
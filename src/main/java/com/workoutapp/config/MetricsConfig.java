@@ -0,0 +1,55 @@
+package com.workoutapp.config;
+
+import com.workoutapp.middleware.RequestMetricsFilter;
+import io.micrometer.common.KeyValues;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Adds a handler tag (e.g. WorkoutController.getWorkoutById) to
+     * http.server.requests so latency histograms are broken down per
+     * controller method.
+     */
+    @Bean
+    public ServerRequestObservationConvention handlerTaggingObservationConvention() {
+        return new DefaultServerRequestObservationConvention() {
+            @Override
+            public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+                return super.getLowCardinalityKeyValues(context)
+                        .and("handler", RequestMetricsFilter.handlerName(context.getCarrier()));
+            }
+        };
+    }
+
+    // Runs after every other ordered DataSource wrapper, so it ends up outermost. The concrete
+    // return type lets Spring see it is Ordered before creating it
+    @Bean
+    public static StatementCounterPostProcessor dataSourceStatementCounter() {
+        return new StatementCounterPostProcessor();
+    }
+
+    static final class StatementCounterPostProcessor implements BeanPostProcessor, Ordered {
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource && !(bean instanceof StatementCountingDataSource)) {
+                return new StatementCountingDataSource(dataSource);
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.workoutapp.config;
+
+import com.workoutapp.util.RequestStats;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Attributes connection wait time and prepared statements to the current
+ * request. Covers both Hibernate and the JdbcTemplate repositories. Counts
+ * prepareStatement/prepareCall/createStatement calls, not executions: a JDBC
+ * batch counts once, matching its single round trip, and so does a statement
+ * executed repeatedly. Wraps any other DataSource wrappers so the wait time
+ * includes them.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource {
+
+    public StatementCountingDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = super.getConnection();
+        RequestStats.recordConnectionWait(System.nanoTime() - start);
+        return count(connection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = super.getConnection(username, password);
+        RequestStats.recordConnectionWait(System.nanoTime() - start);
+        return count(connection);
+    }
+
+    private static Connection count(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "prepareStatement", "prepareCall", "createStatement" -> RequestStats.recordSqlStatement();
+                        default -> {
+                        }
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+}
@@ -0,0 +1,54 @@
+package com.workoutapp.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnJava;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Settings that only apply when requests run on virtual threads
+ * (spring.threads.virtual.enabled=true on Java 21+; on older JVMs Spring
+ * keeps platform threads, so none of this is installed).
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@ConditionalOnJava(JavaVersion.TWENTY_ONE)
+public class VirtualThreadConfig {
+
+    @Bean
+    public static ConcurrencyLimiterPostProcessor dataSourceConcurrencyLimiter(
+            @Value("${app.db.max-concurrent-connections:${spring.datasource.hikari.maximum-pool-size:10}}") int maxConcurrent,
+            @Value("${app.db.permit-timeout-ms:${spring.datasource.hikari.connection-timeout:30000}}") long timeoutMillis) {
+        return new ConcurrencyLimiterPostProcessor(maxConcurrent, timeoutMillis);
+    }
+
+    // Ordered ahead of the statement counter, which has to wrap the limiter to see permit waits
+    static final class ConcurrencyLimiterPostProcessor implements BeanPostProcessor, Ordered {
+        private final int maxConcurrent;
+        private final long timeoutMillis;
+
+        private ConcurrencyLimiterPostProcessor(int maxConcurrent, long timeoutMillis) {
+            this.maxConcurrent = maxConcurrent;
+            this.timeoutMillis = timeoutMillis;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource && !(bean instanceof ConcurrencyLimitedDataSource)) {
+                return new ConcurrencyLimitedDataSource(dataSource, maxConcurrent, timeoutMillis);
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE - 1;
+        }
+    }
+}
@@ -3,11 +3,14 @@ package com.workoutapp.controller;
 import com.workoutapp.dto.AuthTokenResponse;
 import com.workoutapp.dto.CreateTokenRequest;
 import com.workoutapp.model.User;
+import com.workoutapp.model.UserPrincipal;
 import com.workoutapp.service.ITokenService;
 import com.workoutapp.service.IUserService;
+import com.workoutapp.service.LoginThrottle;
 import com.workoutapp.util.JsonResponse;
 import com.workoutapp.util.PasswordUtil;
 import com.workoutapp.util.TokenUtil;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -21,9 +24,14 @@ public class TokenController {
     private final ITokenService tokenService;
     private final IUserService userService;
     private final PasswordUtil passwordUtil;
+    private final LoginThrottle loginThrottle;
 
     @PostMapping
-    public ResponseEntity<JsonResponse> createToken(@Valid @RequestBody CreateTokenRequest request) {
+    public ResponseEntity<JsonResponse> createToken(@Valid @RequestBody CreateTokenRequest request,
+                                                    HttpServletRequest httpRequest) {
+        String clientAddress = httpRequest.getRemoteAddr();
+        long attemptedAt = loginThrottle.acquire(request.getUsername(), clientAddress);
+
         User user = userService.getUserByUsername(request.getUsername())
                 .orElse(null);
 
@@ -32,7 +40,11 @@ public class TokenController {
                     .body(JsonResponse.of("error", "invalid credentials"));
         }
 
-        TokenUtil.TokenData tokenData = tokenService.createNewToken(user.getId(), 24);
+        loginThrottle.recordSuccess(request.getUsername(), clientAddress, attemptedAt);
+        userService.rehashPasswordIfNeeded(user, request.getPassword());
+
+        TokenUtil.TokenData tokenData = tokenService.createNewToken(
+                new UserPrincipal(user.getId(), user.getUsername()), 24);
         AuthTokenResponse response = new AuthTokenResponse(
                 tokenData.getPlaintext(),
                 tokenData.getExpiry()
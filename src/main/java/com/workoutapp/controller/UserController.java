@@ -1,20 +1,29 @@
 package com.workoutapp.controller;
 
 import com.workoutapp.dto.RegisterUserRequest;
+import com.workoutapp.exception.UnauthorizedException;
 import com.workoutapp.model.User;
+import com.workoutapp.model.UserPrincipal;
+import com.workoutapp.service.IProgressService;
+import com.workoutapp.service.IStatsService;
 import com.workoutapp.service.IUserService;
 import com.workoutapp.util.JsonResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+
 @RestController
 @RequestMapping("/users")
 @RequiredArgsConstructor
 public class UserController {
     private final IUserService userService;
+    private final IStatsService statsService;
+    private final IProgressService progressService;
 
     @PostMapping
     public ResponseEntity<JsonResponse> registerUser(@Valid @RequestBody RegisterUserRequest request) {
@@ -27,4 +36,32 @@ public class UserController {
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(JsonResponse.of("user", user));
     }
+
+    @GetMapping("/me/stats")
+    public ResponseEntity<JsonResponse> getStats(
+            @RequestParam(required = false) Integer weeks,
+            @RequestParam(required = false) Integer months,
+            @RequestAttribute("currentUser") UserPrincipal currentUser) {
+        if (currentUser == null || currentUser.isAnonymous()) {
+            throw new UnauthorizedException("you must be logged in");
+        }
+
+        return ResponseEntity.ok(JsonResponse.of("stats",
+                statsService.getStats(currentUser.getId(), weeks, months)));
+    }
+
+    @GetMapping("/me/progress")
+    public ResponseEntity<JsonResponse> getProgress(
+            @RequestParam(required = false) String exercise,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String interval,
+            @RequestAttribute("currentUser") UserPrincipal currentUser) {
+        if (currentUser == null || currentUser.isAnonymous()) {
+            throw new UnauthorizedException("you must be logged in");
+        }
+
+        return ResponseEntity.ok(JsonResponse.of("progress",
+                progressService.getProgress(currentUser.getId(), exercise, from, to, interval)));
+    }
 }
@@ -1,60 +1,194 @@
 package com.workoutapp.controller;
 
+import com.workoutapp.cache.WorkoutResponseCache;
 import com.workoutapp.dto.CreateWorkoutRequest;
+import com.workoutapp.dto.ImportReport;
+import com.workoutapp.dto.PatchWorkoutRequest;
 import com.workoutapp.dto.UpdateWorkoutRequest;
+import com.workoutapp.dto.WorkoutPage;
+import com.workoutapp.dto.WorkoutResponse;
+import com.workoutapp.dto.WorkoutSearchPage;
+import com.workoutapp.dto.WorkoutSummary;
+import com.workoutapp.exception.PreconditionFailedException;
 import com.workoutapp.exception.UnauthorizedException;
-import com.workoutapp.model.User;
-import com.workoutapp.model.Workout;
+import com.workoutapp.exception.ValidationException;
+import com.workoutapp.model.UserPrincipal;
+import com.workoutapp.service.IWorkoutExportService;
+import com.workoutapp.service.IWorkoutImportService;
+import com.workoutapp.service.IWorkoutIngestService;
+import com.workoutapp.service.IWorkoutSearchService;
 import com.workoutapp.service.IWorkoutService;
 import com.workoutapp.util.JsonResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/workouts")
 @RequiredArgsConstructor
 public class WorkoutController {
     private final IWorkoutService workoutService;
+    private final WorkoutResponseCache workoutResponseCache;
+    private final IWorkoutImportService workoutImportService;
+    private final IWorkoutExportService workoutExportService;
+    private final IWorkoutSearchService workoutSearchService;
+    // Present only when app.ingest.group-commit.enabled is set
+    private final Optional<IWorkoutIngestService> workoutIngestService;
+
+    @GetMapping
+    public ResponseEntity<JsonResponse> listWorkouts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestAttribute("currentUser") UserPrincipal currentUser) {
+        if (currentUser == null || currentUser.isAnonymous()) {
+            throw new UnauthorizedException("you must be logged in");
+        }
+
+        WorkoutPage page = workoutService.listWorkouts(currentUser.getId(), cursor, limit);
+        return ResponseEntity.ok(JsonResponse.of("workouts", page.getWorkouts())
+                .and("next_cursor", page.getNextCursor()));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<JsonResponse> searchWorkouts(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Integer offset,
+            @RequestAttribute("currentUser") UserPrincipal currentUser) {
+        if (currentUser == null || currentUser.isAnonymous()) {
+            throw new UnauthorizedException("you must be logged in");
+        }
+
+        WorkoutSearchPage page = workoutSearchService.search(currentUser.getId(), q, limit, offset);
+        return ResponseEntity.ok(JsonResponse.of("hits", page.getHits())
+                .and("next_offset", page.getNextOffset()));
+    }
+
+    @GetMapping("/export")
+    public void exportWorkouts(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestAttribute("currentUser") UserPrincipal currentUser,
+            HttpServletResponse response) throws IOException {
+        if (currentUser == null || currentUser.isAnonymous()) {
+            throw new UnauthorizedException("you must be logged in to export");
+        }
+
+        if ("csv".equals(format)) {
+            response.setContentType("text/csv;charset=UTF-8");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"workouts.csv\"");
+            workoutExportService.exportCsv(currentUser.getId(), response.getOutputStream());
+        } else if ("ndjson".equals(format)) {
+            response.setContentType("application/x-ndjson");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"workouts.ndjson\"");
+            workoutExportService.exportNdjson(currentUser.getId(), response.getOutputStream());
+        } else {
+            throw new ValidationException("format must be ndjson or csv");
+        }
+    }
 
     @GetMapping("/{id}")
-    public ResponseEntity<JsonResponse> getWorkoutById(@PathVariable Long id) {
-        Workout workout = workoutService.getWorkoutById(id);
-        return ResponseEntity.ok(JsonResponse.of("workout", workout));
+    public ResponseEntity<byte[]> getWorkoutById(@PathVariable Long id, WebRequest webRequest) {
+        WorkoutResponseCache.CachedWorkout cached = workoutResponseCache.getIfPresent(id);
+
+        // On a cache miss, answer conditional requests from the version alone
+        if (cached == null && webRequest.getHeader("If-None-Match") != null) {
+            String etag = WorkoutResponseCache.etagFor(id, workoutService.getWorkoutVersion(id));
+            if (webRequest.checkNotModified(etag)) {
+                return null;
+            }
+        }
+
+        if (cached == null) {
+            cached = workoutResponseCache.get(id, () -> workoutService.getWorkoutById(id));
+        }
+        if (webRequest.checkNotModified(cached.getEtag())) {
+            return null;
+        }
+
+        return ResponseEntity.ok()
+                .eTag(cached.getEtag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(cached.getBody());
     }
 
     @PostMapping
     public ResponseEntity<JsonResponse> createWorkout(
             @Valid @RequestBody CreateWorkoutRequest request,
-            @RequestAttribute("currentUser") User currentUser) {
+            @RequestAttribute("currentUser") UserPrincipal currentUser) {
         if (currentUser == null || currentUser.isAnonymous()) {
             throw new UnauthorizedException("you must be logged in");
         }
 
-        Workout created = workoutService.createWorkout(request, currentUser.getId());
+        WorkoutResponse created = workoutIngestService
+                .map(ingest -> ingest.createWorkout(request, currentUser.getId()))
+                .orElseGet(() -> workoutService.createWorkout(request, currentUser.getId()));
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(JsonResponse.of("workout", created));
     }
 
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<JsonResponse> importWorkouts(
+            HttpServletRequest request,
+            @RequestAttribute("currentUser") UserPrincipal currentUser) throws IOException {
+        if (currentUser == null || currentUser.isAnonymous()) {
+            throw new UnauthorizedException("you must be logged in to import");
+        }
+
+        MediaType contentType = MediaType.parseMediaType(request.getContentType());
+        ImportReport report = contentType.isCompatibleWith(MediaType.parseMediaType("text/csv"))
+                ? workoutImportService.importCsv(request.getInputStream(), currentUser.getId())
+                : workoutImportService.importNdjson(request.getInputStream(), currentUser.getId());
+        return ResponseEntity.ok(JsonResponse.of("import", report));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<JsonResponse> updateWorkout(
             @PathVariable Long id,
             @Valid @RequestBody UpdateWorkoutRequest request,
-            @RequestAttribute("currentUser") User currentUser) {
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestAttribute("currentUser") UserPrincipal currentUser) {
+        if (currentUser == null || currentUser.isAnonymous()) {
+            throw new UnauthorizedException("you must be logged in to update");
+        }
+
+        WorkoutResponse updated = workoutService.updateWorkout(id, request, currentUser.getId(),
+                expectedVersion(id, ifMatch));
+        return ResponseEntity.ok()
+                .eTag(WorkoutResponseCache.etagFor(id, updated.getVersion()))
+                .body(JsonResponse.of("workout", updated));
+    }
+
+    @PatchMapping("/{id}")
+    public ResponseEntity<JsonResponse> patchWorkout(
+            @PathVariable Long id,
+            @Valid @RequestBody PatchWorkoutRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestAttribute("currentUser") UserPrincipal currentUser) {
         if (currentUser == null || currentUser.isAnonymous()) {
             throw new UnauthorizedException("you must be logged in to update");
         }
 
-        Workout updated = workoutService.updateWorkout(id, request, currentUser.getId());
-        return ResponseEntity.ok(JsonResponse.of("workout", updated));
+        WorkoutSummary patched = workoutService.patchWorkout(id, request, currentUser.getId(),
+                expectedVersion(id, ifMatch));
+        return ResponseEntity.ok()
+                .eTag(WorkoutResponseCache.etagFor(id, patched.getVersion()))
+                .body(JsonResponse.of("workout", patched));
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteWorkout(
             @PathVariable Long id,
-            @RequestAttribute("currentUser") User currentUser) {
+            @RequestAttribute("currentUser") UserPrincipal currentUser) {
         if (currentUser == null || currentUser.isAnonymous()) {
             throw new UnauthorizedException("you must be logged in to delete");
         }
@@ -62,4 +196,19 @@ public class WorkoutController {
         workoutService.deleteWorkout(id, currentUser.getId());
         return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
     }
+
+    /**
+     * Maps an If-Match header to the version the update must apply to; null
+     * means unconditional. Only a single strong ETag (or *) can match.
+     */
+    private static Long expectedVersion(Long id, String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        Long version = WorkoutResponseCache.versionFromEtag(id, ifMatch.trim());
+        if (version == null) {
+            throw new PreconditionFailedException("workout has been modified");
+        }
+        return version;
+    }
 }
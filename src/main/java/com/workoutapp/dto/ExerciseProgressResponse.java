@@ -0,0 +1,15 @@
+package com.workoutapp.dto;
+
+import lombok.Value;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Value
+public class ExerciseProgressResponse {
+    String exercise;
+    LocalDate from;
+    LocalDate to;
+    String interval;
+    List<ProgressPoint> points;
+}
@@ -0,0 +1,18 @@
+package com.workoutapp.dto;
+
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+public class ImportReport {
+    int imported;
+    int failed;
+    List<ImportError> errors;
+
+    @Value
+    public static class ImportError {
+        long line;
+        String error;
+    }
+}
@@ -0,0 +1,19 @@
+package com.workoutapp.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class PatchWorkoutRequest {
+    @Size(max = 255, message = "title cannot be greater than 255 characters")
+    private String title;
+
+    private String description;
+
+    @Min(value = 1, message = "duration_minutes must be greater than 0")
+    private Integer durationMinutes;
+
+    @Min(value = 0, message = "calories_burned cannot be negative")
+    private Integer caloriesBurned;
+}
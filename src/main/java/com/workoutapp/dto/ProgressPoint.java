@@ -0,0 +1,14 @@
+package com.workoutapp.dto;
+
+import lombok.Value;
+
+import java.time.LocalDate;
+
+@Value
+public class ProgressPoint {
+    LocalDate periodStart;
+    long totalSets;
+    Double maxWeight;
+    Integer bestReps;
+    double totalVolume;
+}
@@ -0,0 +1,13 @@
+package com.workoutapp.dto;
+
+import lombok.Value;
+
+import java.time.LocalDate;
+
+@Value
+public class StatsBucket {
+    LocalDate periodStart;
+    long workouts;
+    long durationMinutes;
+    long caloriesBurned;
+}
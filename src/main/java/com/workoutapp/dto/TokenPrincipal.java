@@ -0,0 +1,17 @@
+package com.workoutapp.dto;
+
+import com.workoutapp.model.UserPrincipal;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+@Value
+public class TokenPrincipal {
+    Long userId;
+    String username;
+    LocalDateTime expiry;
+
+    public UserPrincipal toPrincipal() {
+        return new UserPrincipal(userId, username);
+    }
+}
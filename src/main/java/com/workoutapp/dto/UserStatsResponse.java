@@ -0,0 +1,14 @@
+package com.workoutapp.dto;
+
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+public class UserStatsResponse {
+    long totalWorkouts;
+    long totalDurationMinutes;
+    long totalCaloriesBurned;
+    List<StatsBucket> weekly;
+    List<StatsBucket> monthly;
+}
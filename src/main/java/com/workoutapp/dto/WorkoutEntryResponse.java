@@ -0,0 +1,28 @@
+package com.workoutapp.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.workoutapp.model.WorkoutEntry;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+@Value
+public class WorkoutEntryResponse {
+    @JsonIgnore
+    Long workoutId;
+    Long id;
+    String exerciseName;
+    Integer sets;
+    Integer reps;
+    Integer durationSeconds;
+    Double weight;
+    String notes;
+    Integer orderIndex;
+    LocalDateTime createdAt;
+
+    public static WorkoutEntryResponse from(Long workoutId, WorkoutEntry entry) {
+        return new WorkoutEntryResponse(workoutId, entry.getId(), entry.getExerciseName(), entry.getSets(),
+                entry.getReps(), entry.getDurationSeconds(), entry.getWeight(), entry.getNotes(),
+                entry.getOrderIndex(), entry.getCreatedAt());
+    }
+}
@@ -0,0 +1,11 @@
+package com.workoutapp.dto;
+
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+public class WorkoutPage {
+    List<WorkoutResponse> workouts;
+    String nextCursor;
+}
@@ -0,0 +1,39 @@
+package com.workoutapp.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.workoutapp.model.Workout;
+import com.workoutapp.model.WorkoutEntry;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Value
+public class WorkoutResponse {
+    Long id;
+    Long userId;
+    String title;
+    String description;
+    Integer durationMinutes;
+    Integer caloriesBurned;
+    List<WorkoutEntryResponse> entries;
+    LocalDateTime createdAt;
+    LocalDateTime updatedAt;
+    @JsonIgnore
+    Long version;
+
+    public static WorkoutResponse from(Workout workout) {
+        List<WorkoutEntryResponse> entries = new ArrayList<>(workout.getEntries().size());
+        for (WorkoutEntry entry : workout.getEntries()) {
+            entries.add(WorkoutEntryResponse.from(workout.getId(), entry));
+        }
+        return from(workout, entries);
+    }
+
+    public static WorkoutResponse from(Workout workout, List<WorkoutEntryResponse> entries) {
+        return new WorkoutResponse(workout.getId(), workout.getUserId(), workout.getTitle(),
+                workout.getDescription(), workout.getDurationMinutes(), workout.getCaloriesBurned(),
+                entries, workout.getCreatedAt(), workout.getUpdatedAt(), workout.getVersion());
+    }
+}
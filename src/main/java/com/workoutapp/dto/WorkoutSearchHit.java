@@ -0,0 +1,13 @@
+package com.workoutapp.dto;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+@Value
+public class WorkoutSearchHit {
+    Long id;
+    String title;
+    LocalDateTime createdAt;
+    float rank;
+}
@@ -0,0 +1,11 @@
+package com.workoutapp.dto;
+
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+public class WorkoutSearchPage {
+    List<WorkoutSearchHit> hits;
+    Integer nextOffset;
+}
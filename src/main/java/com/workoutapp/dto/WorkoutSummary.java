@@ -0,0 +1,20 @@
+package com.workoutapp.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+@Value
+public class WorkoutSummary {
+    Long id;
+    Long userId;
+    String title;
+    String description;
+    Integer durationMinutes;
+    Integer caloriesBurned;
+    LocalDateTime createdAt;
+    LocalDateTime updatedAt;
+    @JsonIgnore
+    Long version;
+}
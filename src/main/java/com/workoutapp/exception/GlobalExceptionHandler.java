@@ -1,69 +1,107 @@
 package com.workoutapp.exception;
 
-import com.workoutapp.util.JsonResponse;
+import com.workoutapp.util.ErrorBody;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 @RestControllerAdvice
 @Slf4j
 public class GlobalExceptionHandler {
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
-    public ResponseEntity<JsonResponse> handleValidationExceptions(MethodArgumentNotValidException ex) {
+    public ResponseEntity<byte[]> handleValidationExceptions(MethodArgumentNotValidException ex) {
         String errorMessage = ex.getBindingResult().getFieldErrors().stream()
                 .map(error -> error.getDefaultMessage())
                 .findFirst()
                 .orElse("invalid request payload");
         
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                .body(JsonResponse.of("error", errorMessage));
+        return error(HttpStatus.BAD_REQUEST, errorMessage);
     }
 
     @ExceptionHandler(ConstraintViolationException.class)
-    public ResponseEntity<JsonResponse> handleConstraintViolationException(ConstraintViolationException ex) {
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                .body(JsonResponse.of("error", ex.getMessage()));
+    public ResponseEntity<byte[]> handleConstraintViolationException(ConstraintViolationException ex) {
+        return error(HttpStatus.BAD_REQUEST, ex.getMessage());
     }
 
     @ExceptionHandler(IllegalArgumentException.class)
-    public ResponseEntity<JsonResponse> handleIllegalArgumentException(IllegalArgumentException ex) {
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                .body(JsonResponse.of("error", ex.getMessage()));
+    public ResponseEntity<byte[]> handleIllegalArgumentException(IllegalArgumentException ex) {
+        return error(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<byte[]> handleTypeMismatchException(MethodArgumentTypeMismatchException ex) {
+        return error(HttpStatus.BAD_REQUEST, "invalid value for " + ex.getName());
     }
 
     @ExceptionHandler(ResourceNotFoundException.class)
-    public ResponseEntity<JsonResponse> handleResourceNotFoundException(ResourceNotFoundException ex) {
-        return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                .body(JsonResponse.of("error", ex.getMessage()));
+    public ResponseEntity<byte[]> handleResourceNotFoundException(ResourceNotFoundException ex) {
+        return error(HttpStatus.NOT_FOUND, ex.getMessage());
     }
 
     @ExceptionHandler(UnauthorizedException.class)
-    public ResponseEntity<JsonResponse> handleUnauthorizedException(UnauthorizedException ex) {
-        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                .body(JsonResponse.of("error", ex.getMessage()));
+    public ResponseEntity<byte[]> handleUnauthorizedException(UnauthorizedException ex) {
+        return error(HttpStatus.UNAUTHORIZED, ex.getMessage());
     }
 
     @ExceptionHandler(ConflictException.class)
-    public ResponseEntity<JsonResponse> handleConflictException(ConflictException ex) {
-        return ResponseEntity.status(HttpStatus.CONFLICT)
-                .body(JsonResponse.of("error", ex.getMessage()));
+    public ResponseEntity<byte[]> handleConflictException(ConflictException ex) {
+        return error(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<byte[]> handlePreconditionFailedException(PreconditionFailedException ex) {
+        return error(HttpStatus.PRECONDITION_FAILED, ex.getMessage());
+    }
+
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<byte[]> handleOptimisticLockingFailureException(
+            ObjectOptimisticLockingFailureException ex) {
+        return error(HttpStatus.PRECONDITION_FAILED, "workout has been modified");
     }
 
     @ExceptionHandler(ValidationException.class)
-    public ResponseEntity<JsonResponse> handleValidationException(ValidationException ex) {
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                .body(JsonResponse.of("error", ex.getMessage()));
+    public ResponseEntity<byte[]> handleValidationException(ValidationException ex) {
+        return error(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<byte[]> handleTooManyRequestsException(TooManyRequestsException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(ErrorBody.of(ex.getMessage()));
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<byte[]> handleServiceUnavailableException(ServiceUnavailableException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(ErrorBody.of(ex.getMessage()));
     }
 
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<JsonResponse> handleGenericException(Exception ex) {
+    public ResponseEntity<byte[]> handleGenericException(Exception ex) {
         log.error("Unexpected error: {}", ex.getMessage(), ex);
-        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(JsonResponse.of("error", "internal server error"));
+        return error(HttpStatus.INTERNAL_SERVER_ERROR, "internal server error");
+    }
+
+    /**
+     * Error bodies are written as pre-encoded bytes rather than serialized
+     * through Jackson on every failure.
+     */
+    private static ResponseEntity<byte[]> error(HttpStatus status, String message) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(ErrorBody.of(message));
     }
 }
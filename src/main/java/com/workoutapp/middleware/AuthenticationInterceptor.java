@@ -1,22 +1,43 @@
 package com.workoutapp.middleware;
 
-import com.workoutapp.model.User;
+import com.workoutapp.model.UserPrincipal;
 import com.workoutapp.service.ITokenService;
-import com.workoutapp.service.IUserService;
+import com.workoutapp.util.ErrorBody;
+import com.workoutapp.util.RequestStats;
 import com.workoutapp.util.TokenUtil;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
 
+import java.io.IOException;
+import java.nio.CharBuffer;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @Component
-@RequiredArgsConstructor
 public class AuthenticationInterceptor implements HandlerInterceptor {
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final byte[] INVALID_HEADER_BODY = ErrorBody.of("invalid authorization header");
+    private static final byte[] INVALID_TOKEN_BODY = ErrorBody.of("token expired or invalid");
+
     private final ITokenService tokenService;
-    private final IUserService userService;
+    private final Timer validTokenTimer;
+    private final Timer invalidTokenTimer;
+
+    public AuthenticationInterceptor(ITokenService tokenService, MeterRegistry meterRegistry) {
+        this.tokenService = tokenService;
+        this.validTokenTimer = Timer.builder("auth.token.verify")
+                .description("Time spent verifying bearer tokens")
+                .tag("outcome", "valid")
+                .register(meterRegistry);
+        this.invalidTokenTimer = Timer.builder("auth.token.verify")
+                .description("Time spent verifying bearer tokens")
+                .tag("outcome", "invalid")
+                .register(meterRegistry);
+    }
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
@@ -25,38 +46,61 @@ public class AuthenticationInterceptor implements HandlerInterceptor {
         String authHeader = request.getHeader("Authorization");
         
         if (authHeader == null || authHeader.isEmpty()) {
-            request.setAttribute("currentUser", createAnonymousUser());
+            request.setAttribute("currentUser", UserPrincipal.ANONYMOUS);
             return true;
         }
 
-        String[] headerParts = authHeader.split(" ");
-        if (headerParts.length != 2 || !"Bearer".equals(headerParts[0])) {
-            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-            response.setContentType("application/json");
-            response.getWriter().write("{\"error\":\"invalid authorization header\"}");
+        CharSequence token = extractBearerToken(authHeader);
+        if (token == null) {
+            writeUnauthorized(response, INVALID_HEADER_BODY);
             return false;
         }
 
-        String token = headerParts[1];
-        Optional<Long> userIdOpt = tokenService.getUserIdByToken(token, TokenUtil.SCOPE_AUTH);
+        long start = System.nanoTime();
+        Optional<UserPrincipal> principalOpt = tokenService.getPrincipalByToken(token, TokenUtil.SCOPE_AUTH);
+        long elapsed = System.nanoTime() - start;
+        (principalOpt.isPresent() ? validTokenTimer : invalidTokenTimer).record(elapsed, TimeUnit.NANOSECONDS);
+        RequestStats.recordAuth(elapsed);
 
-        if (userIdOpt.isEmpty()) {
-            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-            response.setContentType("application/json");
-            response.getWriter().write("{\"error\":\"token expired or invalid\"}");
+        if (principalOpt.isEmpty()) {
+            writeUnauthorized(response, INVALID_TOKEN_BODY);
             return false;
         }
 
-        User user = userService.getUserById(userIdOpt.get())
-                .orElse(createAnonymousUser());
-        
-        request.setAttribute("currentUser", user);
+        request.setAttribute("currentUser", principalOpt.get());
         return true;
     }
 
-    private User createAnonymousUser() {
-        User anonymous = new User();
-        anonymous.setId(null);
-        return anonymous;
+    private static void writeUnauthorized(HttpServletResponse response, byte[] body) throws IOException {
+        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        response.setContentType("application/json");
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    /**
+     * Returns a view of the token in a "Bearer <token>" header without copying it,
+     * or null if the header is malformed. Trailing spaces are ignored.
+     */
+    private CharSequence extractBearerToken(String authHeader) {
+        if (!authHeader.startsWith(BEARER_PREFIX)) {
+            return null;
+        }
+
+        int start = BEARER_PREFIX.length();
+        int end = authHeader.length();
+        while (end > start && authHeader.charAt(end - 1) == ' ') {
+            end--;
+        }
+        if (end == start) {
+            return null;
+        }
+        for (int i = start; i < end; i++) {
+            if (authHeader.charAt(i) == ' ') {
+                return null;
+            }
+        }
+
+        return CharBuffer.wrap(authHeader, start, end);
     }
 }
@@ -0,0 +1,79 @@
+package com.workoutapp.middleware;
+
+import com.workoutapp.util.RequestStats;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binds RequestStats to each request, records the number of SQL statements
+ * per controller method and logs requests slower than
+ * app.metrics.slow-request-ms with their breakdown.
+ */
+@Component
+@Slf4j
+public class RequestMetricsFilter extends OncePerRequestFilter {
+    private final MeterRegistry meterRegistry;
+    private final long slowRequestNanos;
+
+    public RequestMetricsFilter(MeterRegistry meterRegistry,
+                                @Value("${app.metrics.slow-request-ms:500}") long slowRequestMillis) {
+        this.meterRegistry = meterRegistry;
+        this.slowRequestNanos = TimeUnit.MILLISECONDS.toNanos(slowRequestMillis);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        RequestStats stats = RequestStats.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestStats.end();
+            long elapsed = System.nanoTime() - start;
+            String handler = handlerName(request);
+
+            DistributionSummary.builder("http.server.requests.sql.statements")
+                    .description("SQL statements prepared per request")
+                    .tag("handler", handler)
+                    .register(meterRegistry)
+                    .record(stats.getSqlStatements());
+
+            if (elapsed >= slowRequestNanos) {
+                log.warn("Slow request {} {} ({}) -> {} in {} ms: auth {} ms, connection wait {} ms, " +
+                                "{} SQL statements, password hashing {} ms",
+                        request.getMethod(), request.getRequestURI(), handler, response.getStatus(),
+                        millis(elapsed), millis(stats.getAuthNanos()), millis(stats.getConnectionWaitNanos()),
+                        stats.getSqlStatements(), millis(stats.getPasswordNanos()));
+            }
+        }
+    }
+
+    /**
+     * Names the controller method that handled the request, or "none" when
+     * no handler was matched (404s, static resources, actuator endpoints).
+     */
+    public static String handlerName(HttpServletRequest request) {
+        if (request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod method) {
+            return method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+        }
+        return "none";
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
@@ -1,5 +1,6 @@
 package com.workoutapp.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -35,6 +36,10 @@ public class User {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    @JsonIgnore
+    @Column(name = "tokens_valid_after")
+    private LocalDateTime tokensValidAfter;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -0,0 +1,19 @@
+package com.workoutapp.model;
+
+import lombok.Value;
+
+/**
+ * Immutable view of the authenticated user attached to each request as
+ * "currentUser". Holds only what controllers need, not the full User entity.
+ */
+@Value
+public class UserPrincipal {
+    public static final UserPrincipal ANONYMOUS = new UserPrincipal(null, null);
+
+    Long id;
+    String username;
+
+    public boolean isAnonymous() {
+        return id == null;
+    }
+}
@@ -4,17 +4,20 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "workout_entries")
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class WorkoutEntry {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "workout_entries_seq")
+    @SequenceGenerator(name = "workout_entries_seq", sequenceName = "workout_entries_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -32,7 +35,7 @@ public class WorkoutEntry {
     @Column(name = "duration_seconds")
     private Integer durationSeconds;
 
-    @Column(precision = 5, scale = 2)
+    @Column(columnDefinition = "DECIMAL(5, 2)")
     private Double weight;
 
     @Column(columnDefinition = "TEXT")
@@ -0,0 +1,40 @@
+package com.workoutapp.repository;
+
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Fleet-wide settings. The first node to publish a value wins; later nodes
+ * read it back instead of computing their own. Read during startup, so it
+ * waits for the Flyway migrations.
+ */
+@Repository
+@DependsOnDatabaseInitialization
+public class AppSettingRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    public AppSettingRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    public Optional<String> find(String name) {
+        List<String> values = jdbcTemplate.queryForList(
+                "SELECT value FROM app_settings WHERE name = ?", String.class, name);
+        return values.stream().findFirst();
+    }
+
+    /**
+     * Stores the value unless one is already set, and returns whichever value
+     * is stored afterwards.
+     */
+    public String putIfAbsent(String name, String value) {
+        jdbcTemplate.update("INSERT INTO app_settings (name, value) VALUES (?, ?) ON CONFLICT (name) DO NOTHING",
+                name, value);
+        return find(name).orElse(value);
+    }
+}
@@ -0,0 +1,136 @@
+package com.workoutapp.repository;
+
+import com.workoutapp.dto.ProgressPoint;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Daily per-exercise summaries (sets, heaviest weight, best reps, volume) keyed
+ * by (user_id, exercise_name, day), so progression charts read a handful of
+ * rows instead of every entry a user has logged. Upserts and rebuilds take
+ * {@link RollupLocks} so a rebuild never interleaves with a live upsert.
+ */
+@Repository
+public class ExerciseProgressRepository {
+    private static final String UPSERT_SAMPLE =
+            "INSERT INTO exercise_progress (user_id, exercise_name, day, total_sets, max_weight, best_reps, " +
+            "total_volume) VALUES (?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (user_id, exercise_name, day) DO UPDATE SET " +
+            "total_sets = exercise_progress.total_sets + EXCLUDED.total_sets, " +
+            "max_weight = GREATEST(exercise_progress.max_weight, EXCLUDED.max_weight), " +
+            "best_reps = GREATEST(exercise_progress.best_reps, EXCLUDED.best_reps), " +
+            "total_volume = exercise_progress.total_volume + EXCLUDED.total_volume";
+
+    private static final String REBUILD_INSERT =
+            "INSERT INTO exercise_progress (user_id, exercise_name, day, total_sets, max_weight, best_reps, " +
+            "total_volume) " +
+            "SELECT w.user_id, e.exercise_name, CAST(w.created_at AS DATE), SUM(e.sets), MAX(e.weight), " +
+            "MAX(e.reps), COALESCE(SUM(e.sets * e.reps * e.weight), 0) " +
+            "FROM workout_entries e JOIN workouts w ON w.id = e.workout_id %s " +
+            "GROUP BY w.user_id, e.exercise_name, CAST(w.created_at AS DATE)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ExerciseProgressRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Folds newly written entries into their day's rows. Only valid for
+     * inserts: maxima can't be lowered by a delta, so changes and deletes
+     * go through {@link #rebuildDay}.
+     */
+    public void applySamples(List<Sample> samples) {
+        if (samples.isEmpty()) {
+            return;
+        }
+        Set<Long> userIds = new HashSet<>();
+        List<Object[]> rows = new ArrayList<>(samples.size());
+        for (Sample sample : samples) {
+            userIds.add(sample.userId);
+            rows.add(new Object[]{sample.userId, sample.exerciseName, sample.day, sample.sets,
+                    sample.maxWeight, sample.bestReps, sample.volume});
+        }
+        RollupLocks.lockUsers(jdbcTemplate, userIds);
+        jdbcTemplate.batchUpdate(UPSERT_SAMPLE, rows);
+    }
+
+    /**
+     * Recomputes one user's rows for one day from their entries. Uses the
+     * workouts (user_id, created_at) index, so the cost is one day of history.
+     * Pending JPA changes must be flushed first.
+     */
+    public void rebuildDay(Long userId, LocalDate day) {
+        RollupLocks.lockUsers(jdbcTemplate, List.of(userId));
+        jdbcTemplate.update("DELETE FROM exercise_progress WHERE user_id = ? AND day = ?", userId, day);
+        jdbcTemplate.update(String.format(REBUILD_INSERT,
+                        "WHERE w.user_id = ? AND w.created_at >= ? AND w.created_at < ?"),
+                userId, day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+    }
+
+    public void rebuildAll() {
+        RollupLocks.lockAllUsers(jdbcTemplate);
+        jdbcTemplate.update("DELETE FROM exercise_progress");
+        jdbcTemplate.update(String.format(REBUILD_INSERT, ""));
+    }
+
+    /**
+     * Returns one point per interval between from and to, inclusive. The
+     * interval must be a date_trunc unit; callers pass a fixed value.
+     */
+    public List<ProgressPoint> findSeries(Long userId, String exerciseName, LocalDate from, LocalDate to,
+                                          String interval) {
+        return jdbcTemplate.query(
+                "SELECT CAST(date_trunc('" + interval + "', day) AS DATE) AS period_start, " +
+                "SUM(total_sets) AS total_sets, MAX(max_weight) AS max_weight, MAX(best_reps) AS best_reps, " +
+                "SUM(total_volume) AS total_volume " +
+                "FROM exercise_progress WHERE user_id = ? AND exercise_name = ? AND day >= ? AND day <= ? " +
+                "GROUP BY 1 ORDER BY 1",
+                (rs, rowNum) -> {
+                    BigDecimal maxWeight = rs.getBigDecimal("max_weight");
+                    return new ProgressPoint(rs.getObject("period_start", LocalDate.class),
+                            rs.getLong("total_sets"),
+                            maxWeight == null ? null : maxWeight.doubleValue(),
+                            rs.getObject("best_reps", Integer.class),
+                            rs.getBigDecimal("total_volume").doubleValue());
+                },
+                userId, exerciseName, from, to);
+    }
+
+    public static final class Sample {
+        private final Long userId;
+        private final String exerciseName;
+        private final LocalDate day;
+        private long sets;
+        private Double maxWeight;
+        private Integer bestReps;
+        private double volume;
+
+        public Sample(Long userId, String exerciseName, LocalDate day) {
+            this.userId = userId;
+            this.exerciseName = exerciseName;
+            this.day = day;
+        }
+
+        public void add(int sets, Integer reps, Double weight) {
+            this.sets += sets;
+            if (weight != null && (maxWeight == null || weight > maxWeight)) {
+                maxWeight = weight;
+            }
+            if (reps != null && (bestReps == null || reps > bestReps)) {
+                bestReps = reps;
+            }
+            if (reps != null && weight != null) {
+                volume += (double) sets * reps * weight;
+            }
+        }
+    }
+}
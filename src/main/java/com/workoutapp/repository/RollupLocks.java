@@ -0,0 +1,35 @@
+package com.workoutapp.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Collection;
+import java.util.TreeSet;
+
+/**
+ * Transaction-scoped advisory locks that keep rollup rebuilds from racing the
+ * incremental upserts. Writers hold the all-users lock shared and their users'
+ * locks exclusively; a per-user rebuild takes the user lock and a full rebuild
+ * takes the all-users lock exclusively. Must be called inside a transaction.
+ */
+final class RollupLocks {
+    private static final int ALL_USERS = 0x726f6c6c;  // "roll"
+    private static final int USER = 0x726f6c75;       // "rolu"
+
+    private RollupLocks() {
+    }
+
+    /**
+     * Locks the given users, in id order so concurrent writers can't deadlock.
+     * Re-locking within the same transaction is a no-op.
+     */
+    static void lockUsers(JdbcTemplate jdbcTemplate, Collection<Long> userIds) {
+        jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock_shared(?, 0)", ALL_USERS);
+        for (Long userId : new TreeSet<>(userIds)) {
+            jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(?, ?)", USER, Long.hashCode(userId));
+        }
+    }
+
+    static void lockAllUsers(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(?, 0)", ALL_USERS);
+    }
+}
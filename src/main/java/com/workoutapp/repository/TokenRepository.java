@@ -1,18 +1,30 @@
 package com.workoutapp.repository;
 
+import com.workoutapp.dto.TokenPrincipal;
 import com.workoutapp.model.Token;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
 public interface TokenRepository extends JpaRepository<Token, byte[]> {
-    @Query("SELECT t.userId FROM Token t WHERE t.hash = :hash AND t.scope = :scope AND t.expiry > :now")
-    Optional<Long> findUserIdByTokenHash(@Param("hash") byte[] hash, @Param("scope") String scope, @Param("now") LocalDateTime now);
+    @Query("SELECT new com.workoutapp.dto.TokenPrincipal(u.id, u.username, t.expiry) " +
+           "FROM Token t JOIN User u ON u.id = t.userId " +
+           "WHERE t.hash = :hash AND t.scope = :scope AND t.expiry > :now")
+    Optional<TokenPrincipal> findPrincipalByTokenHash(@Param("hash") byte[] hash, @Param("scope") String scope, @Param("now") LocalDateTime now);
 
     void deleteByUserIdAndScope(Long userId, String scope);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM tokens WHERE hash IN " +
+                   "(SELECT hash FROM tokens WHERE expiry <= :now LIMIT :batchSize)",
+           nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
 }
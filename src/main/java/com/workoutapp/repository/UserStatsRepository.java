@@ -0,0 +1,110 @@
+package com.workoutapp.repository;
+
+import com.workoutapp.dto.StatsBucket;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Per-user rollups of workout count, duration and calories, kept for all time
+ * and per week and month. Writers apply deltas with an upsert in the same
+ * transaction as the workout change, under {@link RollupLocks} so a full
+ * rebuild can't interleave with them and drop or double-count a workout.
+ */
+@Repository
+public class UserStatsRepository {
+    public static final String PERIOD_ALL = "all";
+    public static final String PERIOD_WEEK = "week";
+    public static final String PERIOD_MONTH = "month";
+    public static final LocalDate ALL_TIME_START = LocalDate.of(1970, 1, 1);
+
+    private static final String UPSERT_DELTA =
+            "INSERT INTO user_stats_rollups (user_id, period, period_start, workout_count, " +
+            "total_duration_minutes, total_calories_burned) VALUES (?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (user_id, period, period_start) DO UPDATE SET " +
+            "workout_count = user_stats_rollups.workout_count + EXCLUDED.workout_count, " +
+            "total_duration_minutes = user_stats_rollups.total_duration_minutes + EXCLUDED.total_duration_minutes, " +
+            "total_calories_burned = user_stats_rollups.total_calories_burned + EXCLUDED.total_calories_burned";
+
+    private static final String REBUILD_INSERT =
+            "INSERT INTO user_stats_rollups (user_id, period, period_start, workout_count, " +
+            "total_duration_minutes, total_calories_burned) " +
+            "SELECT user_id, 'all', DATE '1970-01-01', COUNT(*), SUM(duration_minutes), SUM(calories_burned) " +
+            "FROM workouts GROUP BY user_id " +
+            "UNION ALL " +
+            "SELECT user_id, 'week', CAST(date_trunc('week', created_at) AS DATE), COUNT(*), " +
+            "SUM(duration_minutes), SUM(calories_burned) " +
+            "FROM workouts GROUP BY user_id, CAST(date_trunc('week', created_at) AS DATE) " +
+            "UNION ALL " +
+            "SELECT user_id, 'month', CAST(date_trunc('month', created_at) AS DATE), COUNT(*), " +
+            "SUM(duration_minutes), SUM(calories_burned) " +
+            "FROM workouts GROUP BY user_id, CAST(date_trunc('month', created_at) AS DATE)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserStatsRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    public void applyDeltas(List<Delta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        Set<Long> userIds = new HashSet<>();
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        for (Delta delta : deltas) {
+            userIds.add(delta.userId);
+            rows.add(new Object[]{delta.userId, delta.period, delta.periodStart,
+                    delta.workouts, delta.durationMinutes, delta.caloriesBurned});
+        }
+        RollupLocks.lockUsers(jdbcTemplate, userIds);
+        jdbcTemplate.batchUpdate(UPSERT_DELTA, rows);
+    }
+
+    public List<StatsBucket> findBuckets(Long userId, String period, LocalDate from) {
+        return jdbcTemplate.query(
+                "SELECT period_start, workout_count, total_duration_minutes, total_calories_burned " +
+                "FROM user_stats_rollups WHERE user_id = ? AND period = ? AND period_start >= ? " +
+                "ORDER BY period_start",
+                (rs, rowNum) -> new StatsBucket(rs.getObject("period_start", LocalDate.class),
+                        rs.getLong("workout_count"), rs.getLong("total_duration_minutes"),
+                        rs.getLong("total_calories_burned")),
+                userId, period, from);
+    }
+
+    public void rebuildAll() {
+        RollupLocks.lockAllUsers(jdbcTemplate);
+        jdbcTemplate.update("DELETE FROM user_stats_rollups");
+        jdbcTemplate.update(REBUILD_INSERT);
+    }
+
+    public static final class Delta {
+        private final Long userId;
+        private final String period;
+        private final LocalDate periodStart;
+        private final long workouts;
+        private final long durationMinutes;
+        private final long caloriesBurned;
+
+        public Delta(Long userId, String period, LocalDate periodStart,
+                     long workouts, long durationMinutes, long caloriesBurned) {
+            this.userId = userId;
+            this.period = period;
+            this.periodStart = periodStart;
+            this.workouts = workouts;
+            this.durationMinutes = durationMinutes;
+            this.caloriesBurned = caloriesBurned;
+        }
+
+        public Delta plus(Delta other) {
+            return new Delta(userId, period, periodStart, workouts + other.workouts,
+                    durationMinutes + other.durationMinutes, caloriesBurned + other.caloriesBurned);
+        }
+    }
+}
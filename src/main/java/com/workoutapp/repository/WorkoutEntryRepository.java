@@ -0,0 +1,19 @@
+package com.workoutapp.repository;
+
+import com.workoutapp.dto.WorkoutEntryResponse;
+import com.workoutapp.model.WorkoutEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface WorkoutEntryRepository extends JpaRepository<WorkoutEntry, Long> {
+    @Query("SELECT new com.workoutapp.dto.WorkoutEntryResponse(e.workout.id, e.id, e.exerciseName, e.sets, " +
+           "e.reps, e.durationSeconds, e.weight, e.notes, e.orderIndex, e.createdAt) " +
+           "FROM WorkoutEntry e WHERE e.workout.id IN :workoutIds ORDER BY e.workout.id, e.orderIndex")
+    List<WorkoutEntryResponse> findResponsesByWorkoutIds(@Param("workoutIds") Collection<Long> workoutIds);
+}
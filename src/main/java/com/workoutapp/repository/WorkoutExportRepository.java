@@ -0,0 +1,115 @@
+package com.workoutapp.repository;
+
+import com.workoutapp.dto.WorkoutEntryResponse;
+import com.workoutapp.dto.WorkoutResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads a user's workouts with their entries through a server-side cursor.
+ * Rows are grouped into one workout at a time and handed to the consumer, so
+ * only a single workout is held in memory. Must run inside a transaction for
+ * PostgreSQL to honour the fetch size.
+ */
+@Repository
+public class WorkoutExportRepository {
+    private static final String EXPORT_QUERY =
+            "SELECT w.id, w.user_id, w.title, w.description, w.duration_minutes, w.calories_burned, " +
+            "w.created_at, w.updated_at, w.version, e.id AS entry_id, e.exercise_name, e.sets, e.reps, " +
+            "e.duration_seconds, e.weight, e.notes, e.order_index, e.created_at AS entry_created_at " +
+            "FROM workouts w LEFT JOIN workout_entries e ON e.workout_id = w.id " +
+            "WHERE w.user_id = ? ORDER BY w.created_at, w.id, e.order_index, e.id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public WorkoutExportRepository(DataSource dataSource,
+                                   @Value("${app.export.fetch-size:500}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    public void forEachWorkout(Long userId, Consumer<WorkoutResponse> consumer) {
+        WorkoutAccumulator accumulator = new WorkoutAccumulator(consumer);
+        jdbcTemplate.query(EXPORT_QUERY, accumulator::addRow, userId);
+        accumulator.finish();
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+
+    private static final class WorkoutAccumulator {
+        private final Consumer<WorkoutResponse> consumer;
+        private ResultRow current;
+        private List<WorkoutEntryResponse> entries = new ArrayList<>();
+
+        private WorkoutAccumulator(Consumer<WorkoutResponse> consumer) {
+            this.consumer = consumer;
+        }
+
+        private void addRow(ResultSet rs) throws SQLException {
+            long id = rs.getLong("id");
+            if (current == null || current.id != id) {
+                finish();
+                current = new ResultRow(id, rs);
+            }
+
+            long entryId = rs.getLong("entry_id");
+            if (!rs.wasNull()) {
+                BigDecimal weight = rs.getBigDecimal("weight");
+                entries.add(new WorkoutEntryResponse(id, entryId, rs.getString("exercise_name"),
+                        rs.getObject("sets", Integer.class), rs.getObject("reps", Integer.class),
+                        rs.getObject("duration_seconds", Integer.class),
+                        weight == null ? null : weight.doubleValue(), rs.getString("notes"),
+                        rs.getObject("order_index", Integer.class),
+                        toLocalDateTime(rs.getTimestamp("entry_created_at"))));
+            }
+        }
+
+        private void finish() {
+            if (current == null) {
+                return;
+            }
+            consumer.accept(new WorkoutResponse(current.id, current.userId, current.title, current.description,
+                    current.durationMinutes, current.caloriesBurned, entries, current.createdAt, current.updatedAt,
+                    current.version));
+            current = null;
+            entries = new ArrayList<>();
+        }
+    }
+
+    private static final class ResultRow {
+        private final long id;
+        private final Long userId;
+        private final String title;
+        private final String description;
+        private final Integer durationMinutes;
+        private final Integer caloriesBurned;
+        private final LocalDateTime createdAt;
+        private final LocalDateTime updatedAt;
+        private final Long version;
+
+        private ResultRow(long id, ResultSet rs) throws SQLException {
+            this.id = id;
+            this.userId = rs.getLong("user_id");
+            this.title = rs.getString("title");
+            this.description = rs.getString("description");
+            this.durationMinutes = rs.getObject("duration_minutes", Integer.class);
+            this.caloriesBurned = rs.getObject("calories_burned", Integer.class);
+            this.createdAt = toLocalDateTime(rs.getTimestamp("created_at"));
+            this.updatedAt = toLocalDateTime(rs.getTimestamp("updated_at"));
+            this.version = rs.getLong("version");
+        }
+    }
+}
@@ -1,15 +1,37 @@
 package com.workoutapp.repository;
 
 import com.workoutapp.model.Workout;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface WorkoutRepository extends JpaRepository<Workout, Long> {
     @Query("SELECT w.userId FROM Workout w WHERE w.id = :workoutId")
     Optional<Long> findUserIdByWorkoutId(@Param("workoutId") Long workoutId);
+
+    @Query("SELECT w.version FROM Workout w WHERE w.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query("SELECT DISTINCT w FROM Workout w LEFT JOIN FETCH w.entries WHERE w.id = :id")
+    Optional<Workout> findWithEntriesById(@Param("id") Long id);
+
+    @Query("SELECT w FROM Workout w WHERE w.userId = :userId ORDER BY w.createdAt DESC, w.id DESC")
+    List<Workout> findFirstPageByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    // The redundant createdAt <= bound lets the planner start the index scan at the cursor;
+    // the OR on its own only filters rows after scanning from the newest one
+    @Query("SELECT w FROM Workout w WHERE w.userId = :userId AND w.createdAt <= :createdAt " +
+           "AND (w.createdAt < :createdAt OR (w.createdAt = :createdAt AND w.id < :id)) " +
+           "ORDER BY w.createdAt DESC, w.id DESC")
+    List<Workout> findPageByUserIdBefore(@Param("userId") Long userId,
+                                         @Param("createdAt") LocalDateTime createdAt,
+                                         @Param("id") Long id,
+                                         Pageable pageable);
 }
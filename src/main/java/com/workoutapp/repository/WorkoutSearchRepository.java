@@ -0,0 +1,60 @@
+package com.workoutapp.repository;
+
+import com.workoutapp.dto.WorkoutSearchHit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Full-text search over workouts.search_vector, which combines the title,
+ * description and the entries' exercise names and notes. The vector is
+ * rebuilt here after writes; the GIN index keeps matching off the TEXT columns.
+ */
+@Repository
+public class WorkoutSearchRepository {
+    private static final String REINDEX =
+            "UPDATE workouts w SET search_vector = " +
+            "setweight(to_tsvector('english', coalesce(w.title, '')), 'A') || " +
+            "setweight(to_tsvector('english', coalesce((SELECT string_agg(e.exercise_name, ' ') " +
+            "FROM workout_entries e WHERE e.workout_id = w.id), '')), 'B') || " +
+            "setweight(to_tsvector('english', coalesce(w.description, '')), 'C') || " +
+            "setweight(to_tsvector('english', coalesce((SELECT string_agg(e.notes, ' ') " +
+            "FROM workout_entries e WHERE e.workout_id = w.id), '')), 'D') " +
+            "WHERE w.id = ANY (?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public WorkoutSearchRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Recomputes the search vector of the given workouts in one statement.
+     * Pending JPA changes must be flushed first.
+     */
+    public void reindex(Collection<Long> workoutIds) {
+        if (workoutIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(REINDEX);
+            statement.setArray(1, connection.createArrayOf("bigint", workoutIds.toArray()));
+            return statement;
+        });
+    }
+
+    public List<WorkoutSearchHit> search(Long userId, String query, int limit, int offset) {
+        return jdbcTemplate.query(
+                "SELECT w.id, w.title, w.created_at, ts_rank(w.search_vector, q) AS rank " +
+                "FROM workouts w, websearch_to_tsquery('english', ?) q " +
+                "WHERE w.user_id = ? AND w.search_vector @@ q " +
+                "ORDER BY rank DESC, w.id DESC LIMIT ? OFFSET ?",
+                (rs, rowNum) -> new WorkoutSearchHit(rs.getLong("id"), rs.getString("title"),
+                        rs.getTimestamp("created_at").toLocalDateTime(), rs.getFloat("rank")),
+                query, userId, limit, offset);
+    }
+}
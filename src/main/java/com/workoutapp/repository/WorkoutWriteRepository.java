@@ -0,0 +1,88 @@
+package com.workoutapp.repository;
+
+import com.workoutapp.dto.WorkoutSummary;
+import lombok.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Owner-checked writes done as single statements, without loading the workout
+ * or its entries into the persistence context. Callers that already hold a
+ * managed Workout should not use these.
+ */
+@Repository
+public class WorkoutWriteRepository {
+    // The self-join reads and locks the old row so the stats deltas can be returned with the new values
+    private static final String PATCH =
+            "UPDATE workouts w SET title = COALESCE(?, w.title), description = COALESCE(?, w.description), " +
+            "duration_minutes = COALESCE(?, w.duration_minutes), calories_burned = COALESCE(?, w.calories_burned), " +
+            "updated_at = now(), version = w.version + 1 " +
+            "FROM (SELECT id, duration_minutes, calories_burned FROM workouts WHERE id = ? FOR UPDATE) old " +
+            "WHERE w.id = old.id AND w.user_id = ? %s" +
+            "RETURNING w.id, w.user_id, w.title, w.description, w.duration_minutes, w.calories_burned, " +
+            "w.created_at, w.updated_at, w.version, old.duration_minutes AS old_duration_minutes, " +
+            "old.calories_burned AS old_calories_burned";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public WorkoutWriteRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Deletes the workout if it belongs to the user; entries go through the
+     * ON DELETE CASCADE. Returns what the rollups need to subtract, or empty
+     * when nothing matched.
+     */
+    public Optional<DeletedWorkout> deleteOwned(Long workoutId, Long userId) {
+        List<DeletedWorkout> deleted = jdbcTemplate.query(
+                "DELETE FROM workouts WHERE id = ? AND user_id = ? " +
+                "RETURNING created_at, duration_minutes, calories_burned",
+                (rs, rowNum) -> new DeletedWorkout(rs.getTimestamp("created_at").toLocalDateTime(),
+                        rs.getInt("duration_minutes"), rs.getInt("calories_burned")),
+                workoutId, userId);
+        return deleted.stream().findFirst();
+    }
+
+    /**
+     * Overwrites the non-null scalar fields if the workout belongs to the user
+     * and, when expectedVersion is given, is still at that version. Entries
+     * are not touched. Returns empty when nothing matched.
+     */
+    public Optional<PatchedWorkout> patchOwned(Long workoutId, Long userId, Long expectedVersion, String title,
+                                               String description, Integer durationMinutes, Integer caloriesBurned) {
+        String sql = String.format(PATCH, expectedVersion == null ? "" : "AND w.version = ? ");
+        Object[] args = expectedVersion == null
+                ? new Object[]{title, description, durationMinutes, caloriesBurned, workoutId, userId}
+                : new Object[]{title, description, durationMinutes, caloriesBurned, workoutId, userId, expectedVersion};
+
+        List<PatchedWorkout> patched = jdbcTemplate.query(sql,
+                (rs, rowNum) -> new PatchedWorkout(
+                        new WorkoutSummary(rs.getLong("id"), rs.getLong("user_id"), rs.getString("title"),
+                                rs.getString("description"), rs.getInt("duration_minutes"),
+                                rs.getInt("calories_burned"), rs.getTimestamp("created_at").toLocalDateTime(),
+                                rs.getTimestamp("updated_at").toLocalDateTime(), rs.getLong("version")),
+                        rs.getInt("old_duration_minutes"), rs.getInt("old_calories_burned")),
+                args);
+        return patched.stream().findFirst();
+    }
+
+    @Value
+    public static class PatchedWorkout {
+        WorkoutSummary workout;
+        int previousDurationMinutes;
+        int previousCaloriesBurned;
+    }
+
+    @Value
+    public static class DeletedWorkout {
+        LocalDateTime createdAt;
+        int durationMinutes;
+        int caloriesBurned;
+    }
+}
@@ -0,0 +1,15 @@
+package com.workoutapp.service;
+
+import com.workoutapp.dto.ExerciseProgressResponse;
+import com.workoutapp.model.Workout;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface IProgressService {
+    ExerciseProgressResponse getProgress(Long userId, String exercise, LocalDate from, LocalDate to, String interval);
+    void recordCreated(List<Workout> workouts);
+    void recordChanged(Long userId, LocalDateTime workoutCreatedAt);
+    void rebuildAll();
+}
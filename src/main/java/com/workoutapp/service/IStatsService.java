@@ -0,0 +1,15 @@
+package com.workoutapp.service;
+
+import com.workoutapp.dto.UserStatsResponse;
+import com.workoutapp.model.Workout;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface IStatsService {
+    UserStatsResponse getStats(Long userId, Integer weeks, Integer months);
+    void recordCreated(List<Workout> workouts);
+    void recordChanged(Long userId, LocalDateTime createdAt, long durationDelta, long caloriesDelta);
+    void recordDeleted(Long userId, LocalDateTime createdAt, long durationMinutes, long caloriesBurned);
+    void rebuildAll();
+}
@@ -1,11 +1,12 @@
 package com.workoutapp.service;
 
+import com.workoutapp.model.UserPrincipal;
 import com.workoutapp.util.TokenUtil;
 
 import java.util.Optional;
 
 public interface ITokenService {
-    TokenUtil.TokenData createNewToken(Long userId, long ttlHours);
-    Optional<Long> getUserIdByToken(String plaintextToken, String scope);
+    TokenUtil.TokenData createNewToken(UserPrincipal principal, long ttlHours);
+    Optional<UserPrincipal> getPrincipalByToken(CharSequence plaintextToken, String scope);
     void deleteAllTokensForUser(Long userId, String scope);
 }
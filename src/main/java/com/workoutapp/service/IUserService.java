@@ -8,4 +8,5 @@ public interface IUserService {
     User createUser(String username, String email, String password, String bio);
     Optional<User> getUserByUsername(String username);
     Optional<User> getUserById(Long id);
+    void rehashPasswordIfNeeded(User user, String plaintextPassword);
 }
@@ -0,0 +1,9 @@
+package com.workoutapp.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface IWorkoutExportService {
+    void exportNdjson(Long userId, OutputStream out) throws IOException;
+    void exportCsv(Long userId, OutputStream out) throws IOException;
+}
@@ -0,0 +1,11 @@
+package com.workoutapp.service;
+
+import com.workoutapp.dto.ImportReport;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface IWorkoutImportService {
+    ImportReport importNdjson(InputStream body, Long userId) throws IOException;
+    ImportReport importCsv(InputStream body, Long userId) throws IOException;
+}
@@ -0,0 +1,8 @@
+package com.workoutapp.service;
+
+import com.workoutapp.dto.CreateWorkoutRequest;
+import com.workoutapp.dto.WorkoutResponse;
+
+public interface IWorkoutIngestService {
+    WorkoutResponse createWorkout(CreateWorkoutRequest request, Long userId);
+}
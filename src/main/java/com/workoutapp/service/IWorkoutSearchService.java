@@ -0,0 +1,10 @@
+package com.workoutapp.service;
+
+import com.workoutapp.dto.WorkoutSearchPage;
+
+import java.util.Collection;
+
+public interface IWorkoutSearchService {
+    WorkoutSearchPage search(Long userId, String query, Integer limit, Integer offset);
+    void reindex(Collection<Long> workoutIds);
+}
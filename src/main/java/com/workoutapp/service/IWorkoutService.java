@@ -1,12 +1,18 @@
 package com.workoutapp.service;
 
 import com.workoutapp.dto.CreateWorkoutRequest;
+import com.workoutapp.dto.PatchWorkoutRequest;
 import com.workoutapp.dto.UpdateWorkoutRequest;
-import com.workoutapp.model.Workout;
+import com.workoutapp.dto.WorkoutPage;
+import com.workoutapp.dto.WorkoutResponse;
+import com.workoutapp.dto.WorkoutSummary;
 
 public interface IWorkoutService {
-    Workout createWorkout(CreateWorkoutRequest request, Long userId);
-    Workout getWorkoutById(Long id);
-    Workout updateWorkout(Long workoutId, UpdateWorkoutRequest request, Long userId);
+    WorkoutResponse createWorkout(CreateWorkoutRequest request, Long userId);
+    WorkoutResponse getWorkoutById(Long id);
+    Long getWorkoutVersion(Long id);
+    WorkoutPage listWorkouts(Long userId, String cursor, Integer limit);
+    WorkoutResponse updateWorkout(Long workoutId, UpdateWorkoutRequest request, Long userId, Long expectedVersion);
+    WorkoutSummary patchWorkout(Long workoutId, PatchWorkoutRequest request, Long userId, Long expectedVersion);
     void deleteWorkout(Long workoutId, Long userId);
 }
@@ -0,0 +1,92 @@
+package com.workoutapp.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.workoutapp.exception.TooManyRequestsException;
+import com.workoutapp.util.SlidingWindowCounter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Limits login attempts per username and per client address over a sliding
+ * window. Every attempt is counted before password verification with a single
+ * increment-and-check, so a burst of parallel guesses can't all slip past the
+ * limit and reach BCrypt; successful logins give their attempt back. Tracked
+ * keys are bounded and idle keys expire.
+ */
+@Component
+public class LoginThrottle {
+    private static final int BUCKETS = 10;
+
+    private final Cache<String, SlidingWindowCounter> usernameAttempts;
+    private final Cache<String, SlidingWindowCounter> addressAttempts;
+    private final long windowMillis;
+    private final int maxPerUsername;
+    private final int maxPerAddress;
+    private final long retryAfterSeconds;
+    private final Counter rejectedCounter;
+
+    public LoginThrottle(@Value("${app.login-throttle.window-seconds:300}") long windowSeconds,
+                         @Value("${app.login-throttle.max-failures-per-username:10}") int maxPerUsername,
+                         @Value("${app.login-throttle.max-failures-per-address:50}") int maxPerAddress,
+                         @Value("${app.login-throttle.max-tracked-keys:100000}") long maxTrackedKeys,
+                         MeterRegistry meterRegistry) {
+        this.windowMillis = Duration.ofSeconds(windowSeconds).toMillis();
+        this.maxPerUsername = maxPerUsername;
+        this.maxPerAddress = maxPerAddress;
+        // The oldest bucket leaves the window within one bucket's length
+        this.retryAfterSeconds = Math.max(1, windowSeconds / BUCKETS);
+        this.usernameAttempts = newCounterCache(maxTrackedKeys, windowSeconds);
+        this.addressAttempts = newCounterCache(maxTrackedKeys, windowSeconds);
+        this.rejectedCounter = Counter.builder("login.throttle.rejected")
+                .description("Login attempts rejected before password verification")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Counts a login attempt against both keys and throws if either is over
+     * its limit. Rejected attempts are refunded, so only attempts that go on
+     * to verification count. Returns the attempt time to pass to recordSuccess.
+     */
+    public long acquire(String username, String clientAddress) {
+        long now = System.currentTimeMillis();
+        SlidingWindowCounter byUsername = counterFor(usernameAttempts, username);
+        SlidingWindowCounter byAddress = counterFor(addressAttempts, clientAddress);
+        boolean usernameOver = byUsername.incrementAndCount(now) > maxPerUsername;
+        boolean addressOver = byAddress.incrementAndCount(now) > maxPerAddress;
+        if (usernameOver || addressOver) {
+            byUsername.decrement(now);
+            byAddress.decrement(now);
+            rejectedCounter.increment();
+            throw new TooManyRequestsException("too many login attempts, please try again later", retryAfterSeconds);
+        }
+        return now;
+    }
+
+    /**
+     * Clears the username's failures and refunds the address's attempt. Failed
+     * attempts need no call; they were counted by acquire.
+     */
+    public void recordSuccess(String username, String clientAddress, long attemptedAt) {
+        usernameAttempts.invalidate(username);
+        SlidingWindowCounter byAddress = addressAttempts.getIfPresent(clientAddress);
+        if (byAddress != null) {
+            byAddress.decrement(attemptedAt);
+        }
+    }
+
+    private SlidingWindowCounter counterFor(Cache<String, SlidingWindowCounter> counters, String key) {
+        return counters.get(key, k -> new SlidingWindowCounter(windowMillis, BUCKETS));
+    }
+
+    private static Cache<String, SlidingWindowCounter> newCounterCache(long maxSize, long windowSeconds) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(Duration.ofSeconds(windowSeconds))
+                .build();
+    }
+}
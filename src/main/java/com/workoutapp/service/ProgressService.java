@@ -0,0 +1,131 @@
+package com.workoutapp.service;
+
+import com.workoutapp.dto.ExerciseProgressResponse;
+import com.workoutapp.exception.ValidationException;
+import com.workoutapp.model.Workout;
+import com.workoutapp.model.WorkoutEntry;
+import com.workoutapp.repository.ExerciseProgressRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the per-exercise daily progress index in step with workout writes and
+ * serves downsampled time series from it. Callers must already be in the
+ * transaction that changes the entries.
+ */
+@Service
+@Slf4j
+public class ProgressService implements IProgressService {
+    private static final String DAY = "day";
+    private static final String WEEK = "week";
+    private static final String MONTH = "month";
+
+    private final ExerciseProgressRepository exerciseProgressRepository;
+    private final int maxPoints;
+    private final boolean rebuildOnStartup;
+
+    public ProgressService(ExerciseProgressRepository exerciseProgressRepository,
+                           @Value("${app.progress.max-points:200}") int maxPoints,
+                           @Value("${app.progress.rebuild-on-startup:false}") boolean rebuildOnStartup) {
+        this.exerciseProgressRepository = exerciseProgressRepository;
+        this.maxPoints = maxPoints;
+        this.rebuildOnStartup = rebuildOnStartup;
+    }
+
+    @Transactional(readOnly = true)
+    public ExerciseProgressResponse getProgress(Long userId, String exercise, LocalDate from, LocalDate to,
+                                                String interval) {
+        if (exercise == null || exercise.isBlank()) {
+            throw new ValidationException("exercise is required");
+        }
+        LocalDate end = to == null ? LocalDate.now() : to;
+        LocalDate start = from == null ? end.minusYears(1) : from;
+        if (start.isAfter(end)) {
+            throw new ValidationException("from must not be after to");
+        }
+
+        String resolved = resolveInterval(start, end, interval);
+        return new ExerciseProgressResponse(exercise, start, end, resolved,
+                exerciseProgressRepository.findSeries(userId, exercise, start, end, resolved));
+    }
+
+    public void recordCreated(List<Workout> workouts) {
+        Map<String, ExerciseProgressRepository.Sample> samples = new LinkedHashMap<>();
+        for (Workout workout : workouts) {
+            LocalDate day = workout.getCreatedAt().toLocalDate();
+            for (WorkoutEntry entry : workout.getEntries()) {
+                samples.computeIfAbsent(workout.getUserId() + "|" + entry.getExerciseName() + "|" + day,
+                                key -> new ExerciseProgressRepository.Sample(
+                                        workout.getUserId(), entry.getExerciseName(), day))
+                        .add(entry.getSets(), entry.getReps(), entry.getWeight());
+            }
+        }
+        exerciseProgressRepository.applySamples(new ArrayList<>(samples.values()));
+    }
+
+    public void recordChanged(Long userId, LocalDateTime workoutCreatedAt) {
+        exerciseProgressRepository.rebuildDay(userId, workoutCreatedAt.toLocalDate());
+    }
+
+    @Transactional
+    public void rebuildAll() {
+        long start = System.currentTimeMillis();
+        exerciseProgressRepository.rebuildAll();
+        log.info("Rebuilt exercise progress index in {} ms", System.currentTimeMillis() - start);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuildOnStartup() {
+        if (rebuildOnStartup) {
+            rebuildAll();
+        }
+    }
+
+    /**
+     * Picks the finest interval that keeps the series within max-points, or
+     * checks that an explicitly requested one does.
+     */
+    private String resolveInterval(LocalDate start, LocalDate end, String interval) {
+        if (interval == null) {
+            for (String candidate : List.of(DAY, WEEK, MONTH)) {
+                if (bucketCount(start, end, candidate) <= maxPoints) {
+                    return candidate;
+                }
+            }
+            throw new ValidationException("date range is too long");
+        }
+
+        if (!List.of(DAY, WEEK, MONTH).contains(interval)) {
+            throw new ValidationException("interval must be one of day, week or month");
+        }
+        if (bucketCount(start, end, interval) > maxPoints) {
+            throw new ValidationException("date range is too long for interval " + interval);
+        }
+        return interval;
+    }
+
+    // Counts date_trunc buckets, which start on Mondays for weeks and on the 1st for months
+    private static long bucketCount(LocalDate start, LocalDate end, String interval) {
+        return switch (interval) {
+            case WEEK -> ChronoUnit.WEEKS.between(start.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)),
+                    end.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))) + 1;
+            case MONTH -> ChronoUnit.MONTHS.between(start.withDayOfMonth(1), end.withDayOfMonth(1)) + 1;
+            default -> ChronoUnit.DAYS.between(start, end) + 1;
+        };
+    }
+}
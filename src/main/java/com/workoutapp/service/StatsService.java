@@ -0,0 +1,143 @@
+package com.workoutapp.service;
+
+import com.workoutapp.dto.StatsBucket;
+import com.workoutapp.dto.UserStatsResponse;
+import com.workoutapp.exception.ValidationException;
+import com.workoutapp.model.Workout;
+import com.workoutapp.repository.UserStatsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains per-user training totals as deltas applied alongside workout writes,
+ * so reading stats costs one row per bucket regardless of history size.
+ * Callers must already be in the transaction that changes the workout.
+ */
+@Service
+@Slf4j
+public class StatsService implements IStatsService {
+    private final UserStatsRepository userStatsRepository;
+    private final int defaultBuckets;
+    private final int maxBuckets;
+    private final boolean rebuildOnStartup;
+
+    public StatsService(UserStatsRepository userStatsRepository,
+                        @Value("${app.stats.default-buckets:12}") int defaultBuckets,
+                        @Value("${app.stats.max-buckets:104}") int maxBuckets,
+                        @Value("${app.stats.rebuild-on-startup:false}") boolean rebuildOnStartup) {
+        this.userStatsRepository = userStatsRepository;
+        this.defaultBuckets = defaultBuckets;
+        this.maxBuckets = maxBuckets;
+        this.rebuildOnStartup = rebuildOnStartup;
+    }
+
+    @Transactional(readOnly = true)
+    public UserStatsResponse getStats(Long userId, Integer weeks, Integer months) {
+        int weekCount = bucketCount(weeks, "weeks");
+        int monthCount = bucketCount(months, "months");
+        LocalDate today = LocalDate.now();
+
+        List<StatsBucket> total = userStatsRepository.findBuckets(
+                userId, UserStatsRepository.PERIOD_ALL, UserStatsRepository.ALL_TIME_START);
+        List<StatsBucket> weekly = userStatsRepository.findBuckets(
+                userId, UserStatsRepository.PERIOD_WEEK, weekStart(today).minusWeeks(weekCount - 1));
+        List<StatsBucket> monthly = userStatsRepository.findBuckets(
+                userId, UserStatsRepository.PERIOD_MONTH, monthStart(today).minusMonths(monthCount - 1));
+
+        StatsBucket allTime = total.isEmpty() ? null : total.get(0);
+        return new UserStatsResponse(
+                allTime == null ? 0 : allTime.getWorkouts(),
+                allTime == null ? 0 : allTime.getDurationMinutes(),
+                allTime == null ? 0 : allTime.getCaloriesBurned(),
+                weekly, monthly);
+    }
+
+    public void recordCreated(List<Workout> workouts) {
+        Map<String, UserStatsRepository.Delta> deltas = new LinkedHashMap<>();
+        for (Workout workout : workouts) {
+            addDeltas(deltas, workout.getUserId(), workout.getCreatedAt(),
+                    1, workout.getDurationMinutes(), workout.getCaloriesBurned());
+        }
+        userStatsRepository.applyDeltas(new ArrayList<>(deltas.values()));
+    }
+
+    public void recordChanged(Long userId, LocalDateTime createdAt, long durationDelta, long caloriesDelta) {
+        if (durationDelta == 0 && caloriesDelta == 0) {
+            return;
+        }
+        Map<String, UserStatsRepository.Delta> deltas = new LinkedHashMap<>();
+        addDeltas(deltas, userId, createdAt, 0, durationDelta, caloriesDelta);
+        userStatsRepository.applyDeltas(new ArrayList<>(deltas.values()));
+    }
+
+    public void recordDeleted(Long userId, LocalDateTime createdAt, long durationMinutes, long caloriesBurned) {
+        Map<String, UserStatsRepository.Delta> deltas = new LinkedHashMap<>();
+        addDeltas(deltas, userId, createdAt, -1, -durationMinutes, -caloriesBurned);
+        userStatsRepository.applyDeltas(new ArrayList<>(deltas.values()));
+    }
+
+    /**
+     * Recomputes every rollup from the workouts table. Also runs at startup
+     * when app.stats.rebuild-on-startup is set.
+     */
+    @Transactional
+    public void rebuildAll() {
+        long start = System.currentTimeMillis();
+        userStatsRepository.rebuildAll();
+        log.info("Rebuilt workout stats rollups in {} ms", System.currentTimeMillis() - start);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuildOnStartup() {
+        if (rebuildOnStartup) {
+            rebuildAll();
+        }
+    }
+
+    private int bucketCount(Integer requested, String name) {
+        int count = requested == null ? defaultBuckets : requested;
+        if (count < 1) {
+            throw new ValidationException(name + " must be greater than 0");
+        }
+        return Math.min(count, maxBuckets);
+    }
+
+    private static void addDeltas(Map<String, UserStatsRepository.Delta> deltas, Long userId,
+                                  LocalDateTime createdAt, long workouts, long duration, long calories) {
+        LocalDate day = createdAt.toLocalDate();
+        addDelta(deltas, userId, UserStatsRepository.PERIOD_ALL, UserStatsRepository.ALL_TIME_START,
+                workouts, duration, calories);
+        addDelta(deltas, userId, UserStatsRepository.PERIOD_WEEK, weekStart(day), workouts, duration, calories);
+        addDelta(deltas, userId, UserStatsRepository.PERIOD_MONTH, monthStart(day), workouts, duration, calories);
+    }
+
+    private static void addDelta(Map<String, UserStatsRepository.Delta> deltas, Long userId, String period,
+                                 LocalDate periodStart, long workouts, long duration, long calories) {
+        deltas.merge(userId + "|" + period + "|" + periodStart,
+                new UserStatsRepository.Delta(userId, period, periodStart, workouts, duration, calories),
+                UserStatsRepository.Delta::plus);
+    }
+
+    private static LocalDate weekStart(LocalDate day) {
+        // Matches PostgreSQL's date_trunc('week'), which starts weeks on Monday
+        return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    private static LocalDate monthStart(LocalDate day) {
+        return day.withDayOfMonth(1);
+    }
+}
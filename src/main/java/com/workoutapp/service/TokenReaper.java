@@ -0,0 +1,61 @@
+package com.workoutapp.service;
+
+import com.workoutapp.repository.TokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Periodically removes expired tokens. Deletes run in small batches, each
+ * in its own transaction, so row locks are held only briefly.
+ */
+@Component
+@Slf4j
+public class TokenReaper {
+    private final TokenRepository tokenRepository;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Counter purgedCounter;
+    private final Timer batchTimer;
+
+    public TokenReaper(TokenRepository tokenRepository,
+                       @Value("${app.token-reaper.batch-size:1000}") int batchSize,
+                       @Value("${app.token-reaper.max-batches-per-run:100}") int maxBatchesPerRun,
+                       MeterRegistry meterRegistry) {
+        this.tokenRepository = tokenRepository;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.purgedCounter = Counter.builder("tokens.reaper.purged")
+                .description("Expired tokens deleted by the reaper")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("tokens.reaper.batch")
+                .description("Time spent deleting one batch of expired tokens")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.token-reaper.interval-ms:300000}",
+               initialDelayString = "${app.token-reaper.initial-delay-ms:60000}")
+    public void purgeExpiredTokens() {
+        LocalDateTime now = LocalDateTime.now();
+        long total = 0;
+
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            int deleted = batchTimer.record(() -> tokenRepository.deleteExpiredBatch(now, batchSize));
+            purgedCounter.increment(deleted);
+            total += deleted;
+            if (deleted < batchSize) {
+                break;
+            }
+        }
+
+        if (total > 0) {
+            log.info("Purged {} expired tokens", total);
+        }
+    }
+}
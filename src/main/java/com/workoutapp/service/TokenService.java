@@ -1,11 +1,19 @@
 package com.workoutapp.service;
 
+import com.workoutapp.cache.TokenCache;
+import com.workoutapp.cache.TokenRevocationCache;
+import com.workoutapp.dto.TokenPrincipal;
 import com.workoutapp.model.Token;
+import com.workoutapp.model.UserPrincipal;
 import com.workoutapp.repository.TokenRepository;
+import com.workoutapp.repository.UserRepository;
+import com.workoutapp.util.SignedTokenCodec;
 import com.workoutapp.util.TokenUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
@@ -15,9 +23,18 @@ import java.util.Optional;
 public class TokenService implements ITokenService {
     private final TokenRepository tokenRepository;
     private final TokenUtil tokenUtil;
+    private final TokenCache tokenCache;
+    private final SignedTokenCodec signedTokenCodec;
+    private final TokenRevocationCache revocationCache;
+    private final UserRepository userRepository;
 
     @Transactional
-    public TokenUtil.TokenData createNewToken(Long userId, long ttlHours) {
+    public TokenUtil.TokenData createNewToken(UserPrincipal principal, long ttlHours) {
+        Long userId = principal.getId();
+        if (signedTokenCodec.isIssuingSigned()) {
+            return signedTokenCodec.generateToken(userId, principal.getUsername(), TokenUtil.SCOPE_AUTH, ttlHours);
+        }
+
         TokenUtil.TokenData tokenData = tokenUtil.generateToken(userId, ttlHours);
 
         Token token = new Token();
@@ -31,13 +48,55 @@ public class TokenService implements ITokenService {
         return tokenData;
     }
 
-    public Optional<Long> getUserIdByToken(String plaintextToken, String scope) {
+    public Optional<UserPrincipal> getPrincipalByToken(CharSequence plaintextToken, String scope) {
+        // Both formats are accepted so the issuing mode can be switched without logging users out
+        if (SignedTokenCodec.isSigned(plaintextToken)) {
+            SignedTokenCodec.Claims claims = signedTokenCodec.verify(plaintextToken, scope);
+            if (claims == null
+                    || revocationCache.isRevoked(claims.getPrincipal().getId(), claims.getIssuedAtMillis())) {
+                return Optional.empty();
+            }
+            return Optional.of(claims.getPrincipal());
+        }
+
         byte[] hash = tokenUtil.hashToken(plaintextToken);
-        return tokenRepository.findUserIdByTokenHash(hash, scope, LocalDateTime.now());
+
+        Optional<TokenCache.Entry> cached = tokenCache.get(hash, scope);
+        if (cached.isPresent()) {
+            return Optional.ofNullable(cached.get().getPrincipal());
+        }
+
+        Optional<TokenPrincipal> found = tokenRepository.findPrincipalByTokenHash(hash, scope, LocalDateTime.now());
+        if (found.isEmpty()) {
+            tokenCache.putNegative(hash, scope);
+            return Optional.empty();
+        }
+
+        UserPrincipal principal = found.get().toPrincipal();
+        tokenCache.put(hash, scope, principal, found.get().getExpiry());
+        return Optional.of(principal);
     }
 
     @Transactional
     public void deleteAllTokensForUser(Long userId, String scope) {
         tokenRepository.deleteByUserIdAndScope(userId, scope);
+        tokenCache.invalidateUser(userId, scope);
+
+        // Signed tokens can't be deleted, so move the user's watermark past them
+        LocalDateTime validAfter = LocalDateTime.now();
+        userRepository.updateTokensValidAfter(userId, validAfter);
+
+        // A concurrent lookup may re-cache a row before the delete commits
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    tokenCache.invalidateUser(userId, scope);
+                    revocationCache.update(userId, validAfter);
+                }
+            });
+        } else {
+            revocationCache.update(userId, validAfter);
+        }
     }
 }
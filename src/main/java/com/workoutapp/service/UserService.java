@@ -1,24 +1,41 @@
 package com.workoutapp.service;
 
+import com.workoutapp.cache.UserIdentityFilter;
 import com.workoutapp.exception.ConflictException;
 import com.workoutapp.model.User;
 import com.workoutapp.repository.UserRepository;
 import com.workoutapp.util.PasswordUtil;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class UserService implements IUserService {
     private final UserRepository userRepository;
     private final PasswordUtil passwordUtil;
+    private final UserIdentityFilter userIdentityFilter;
+    // Stores rehashed passwords so the hashing pool's threads never wait on the database
+    private final ThreadPoolExecutor rehashWriter = rehashWriter();
 
-    @Transactional
     public User createUser(String username, String email, String password, String bio) {
+        // Reject known duplicates before paying for BCrypt; the unique constraints stay authoritative
+        if (userIdentityFilter.mightHaveUsername(username) && userRepository.existsByUsername(username)) {
+            throw new ConflictException("username already exists");
+        }
+        if (userIdentityFilter.mightHaveEmail(email) && userRepository.existsByEmail(email)) {
+            throw new ConflictException("email already exists");
+        }
+
         User user = new User();
         user.setUsername(username);
         user.setEmail(email);
@@ -28,7 +45,9 @@ public class UserService implements IUserService {
         }
 
         try {
-            return userRepository.save(user);
+            User saved = userRepository.save(user);
+            userIdentityFilter.add(username, email);
+            return saved;
         } catch (DataIntegrityViolationException e) {
             String errorMessage = e.getMessage().toLowerCase();
             if (errorMessage.contains("username") && errorMessage.contains("unique")) {
@@ -48,4 +67,43 @@ public class UserService implements IUserService {
     public Optional<User> getUserById(Long id) {
         return userRepository.findById(id);
     }
+
+    public void rehashPasswordIfNeeded(User user, String plaintextPassword) {
+        String oldHash = user.getPasswordHash();
+        if (!passwordUtil.needsRehash(oldHash)) {
+            return;
+        }
+
+        // Runs off the request path; the write is skipped if the hash changed meanwhile,
+        // or dropped if the writer is backed up, in which case the next login retries
+        passwordUtil.hashPasswordInBackground(plaintextPassword, newHash -> {
+            try {
+                rehashWriter.execute(() -> storeRehashedPassword(user.getId(), oldHash, newHash));
+            } catch (RejectedExecutionException e) {
+                log.debug("Rehash writer is busy, skipping user {}", user.getId());
+            }
+        });
+    }
+
+    private void storeRehashedPassword(Long userId, String oldHash, String newHash) {
+        try {
+            userRepository.replacePasswordHash(userId, oldHash, newHash);
+        } catch (RuntimeException e) {
+            log.warn("Failed to rehash password for user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    private static ThreadPoolExecutor rehashWriter() {
+        return new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1000),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-rehash-writer");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rehashWriter.shutdown();
+    }
 }
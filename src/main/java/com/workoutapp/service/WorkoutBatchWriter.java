@@ -0,0 +1,108 @@
+package com.workoutapp.service;
+
+import com.workoutapp.model.Workout;
+import com.workoutapp.model.WorkoutEntry;
+import com.workoutapp.repository.WorkoutRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Inserts new workouts in one transaction together with their stats, progress
+ * and search index updates. If the batch fails, each workout is retried in its
+ * own transaction so one bad record doesn't fail the rest. Shared by bulk
+ * import and group-commit ingest.
+ */
+@Component
+@Slf4j
+class WorkoutBatchWriter {
+    private final WorkoutRepository workoutRepository;
+    private final IStatsService statsService;
+    private final IProgressService progressService;
+    private final IWorkoutSearchService workoutSearchService;
+    private final TransactionTemplate transactionTemplate;
+
+    WorkoutBatchWriter(WorkoutRepository workoutRepository,
+                       IStatsService statsService,
+                       IProgressService progressService,
+                       IWorkoutSearchService workoutSearchService,
+                       PlatformTransactionManager transactionManager) {
+        this.workoutRepository = workoutRepository;
+        this.statsService = statsService;
+        this.progressService = progressService;
+        this.workoutSearchService = workoutSearchService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Returns whether each workout, by position, was saved. Saved workouts
+     * have their ids and timestamps set.
+     */
+    boolean[] insert(List<Workout> workouts) {
+        boolean[] saved = new boolean[workouts.size()];
+        try {
+            insertAll(workouts);
+            Arrays.fill(saved, true);
+            return saved;
+        } catch (DataAccessException e) {
+            log.debug("Workout batch failed, retrying records individually: {}", e.getMessage());
+        }
+
+        for (int i = 0; i < workouts.size(); i++) {
+            try {
+                insertOne(workouts.get(i));
+                saved[i] = true;
+            } catch (DataAccessException e) {
+                log.debug("Workout could not be saved: {}", e.getMessage());
+            }
+        }
+        return saved;
+    }
+
+    /**
+     * Inserts all workouts in one transaction, or none of them.
+     */
+    void insertAll(List<Workout> workouts) {
+        transactionTemplate.executeWithoutResult(status -> write(workouts));
+    }
+
+    /**
+     * Inserts one workout in its own transaction. Safe to call for a workout
+     * whose batch was rolled back.
+     */
+    void insertOne(Workout workout) {
+        resetIds(workout);
+        transactionTemplate.executeWithoutResult(status -> write(List.of(workout)));
+    }
+
+    private void write(List<Workout> workouts) {
+        workoutRepository.saveAll(workouts);
+        workoutRepository.flush();
+        statsService.recordCreated(workouts);
+        progressService.recordCreated(workouts);
+        workoutSearchService.reindex(idsOf(workouts));
+    }
+
+    private static List<Long> idsOf(List<Workout> workouts) {
+        List<Long> ids = new ArrayList<>(workouts.size());
+        for (Workout workout : workouts) {
+            ids.add(workout.getId());
+        }
+        return ids;
+    }
+
+    // A rolled-back batch leaves ids and versions assigned, which would make save() merge instead of persist
+    private static void resetIds(Workout workout) {
+        workout.setId(null);
+        workout.setVersion(null);
+        for (WorkoutEntry entry : workout.getEntries()) {
+            entry.setId(null);
+        }
+    }
+}
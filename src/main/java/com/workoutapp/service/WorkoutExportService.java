@@ -0,0 +1,87 @@
+package com.workoutapp.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.workoutapp.dto.WorkoutEntryResponse;
+import com.workoutapp.dto.WorkoutResponse;
+import com.workoutapp.repository.WorkoutExportRepository;
+import com.workoutapp.util.CsvWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streams a user's workouts to the response as they are read. Runs in a
+ * read-only transaction, which takes no row locks, so concurrent writes proceed.
+ * CSV output uses the same columns as the bulk import.
+ */
+@Service
+@RequiredArgsConstructor
+public class WorkoutExportService implements IWorkoutExportService {
+    private final WorkoutExportRepository workoutExportRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public void exportNdjson(Long userId, OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Lines are separated by the newline below; the default separator would add a space before each
+        generator.setRootValueSeparator(null);
+
+        try {
+            workoutExportRepository.forEachWorkout(userId, workout -> {
+                try {
+                    objectMapper.writeValue(generator, workout);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        generator.flush();
+    }
+
+    @Transactional(readOnly = true)
+    public void exportCsv(Long userId, OutputStream out) throws IOException {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        CsvWriter.writeRow(writer, "workout", "title", "description", "duration_minutes", "calories_burned",
+                "exercise_name", "sets", "reps", "duration_seconds", "weight", "notes", "order_index");
+
+        try {
+            workoutExportRepository.forEachWorkout(userId, workout -> {
+                try {
+                    writeCsvWorkout(writer, workout);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private static void writeCsvWorkout(Writer writer, WorkoutResponse workout) throws IOException {
+        if (workout.getEntries().isEmpty()) {
+            CsvWriter.writeRow(writer, workout.getId(), workout.getTitle(), workout.getDescription(),
+                    workout.getDurationMinutes(), workout.getCaloriesBurned(),
+                    null, null, null, null, null, null, null);
+            return;
+        }
+        for (WorkoutEntryResponse entry : workout.getEntries()) {
+            CsvWriter.writeRow(writer, workout.getId(), workout.getTitle(), workout.getDescription(),
+                    workout.getDurationMinutes(), workout.getCaloriesBurned(),
+                    entry.getExerciseName(), entry.getSets(), entry.getReps(), entry.getDurationSeconds(),
+                    entry.getWeight(), entry.getNotes(), entry.getOrderIndex());
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package com.workoutapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.workoutapp.dto.CreateWorkoutRequest;
+import com.workoutapp.dto.ImportReport;
+import com.workoutapp.exception.ValidationException;
+import com.workoutapp.model.Workout;
+import com.workoutapp.model.WorkoutEntry;
+import com.workoutapp.util.BoundedLineReader;
+import com.workoutapp.util.CsvReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Streams workouts from an NDJSON or CSV upload. Records are validated with the
+ * same rules as POST /workouts and saved in fixed-size chunks, one transaction
+ * per chunk. Lines, CSV records and entries per workout are capped as well,
+ * so memory use depends on those limits rather than the upload.
+ */
+@Service
+public class WorkoutImportService implements IWorkoutImportService {
+    private final WorkoutBatchWriter workoutBatchWriter;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+    private final int maxLineLength;
+    private final int maxEntriesPerWorkout;
+
+    public WorkoutImportService(WorkoutBatchWriter workoutBatchWriter,
+                                ObjectMapper objectMapper,
+                                Validator validator,
+                                @Value("${app.import.chunk-size:500}") int chunkSize,
+                                @Value("${app.import.max-reported-errors:100}") int maxReportedErrors,
+                                @Value("${app.import.max-line-length:1048576}") int maxLineLength,
+                                @Value("${app.import.max-entries-per-workout:200}") int maxEntriesPerWorkout) {
+        this.workoutBatchWriter = workoutBatchWriter;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+        this.maxLineLength = maxLineLength;
+        this.maxEntriesPerWorkout = maxEntriesPerWorkout;
+    }
+
+    public ImportReport importNdjson(InputStream body, Long userId) throws IOException {
+        ImportRun run = new ImportRun(userId);
+        BoundedLineReader reader = new BoundedLineReader(
+                new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8)), maxLineLength);
+
+        long lineNumber = 0;
+        while (true) {
+            lineNumber++;
+            String line;
+            try {
+                line = reader.readLine();
+            } catch (IllegalArgumentException e) {
+                run.fail(lineNumber, e.getMessage());
+                continue;
+            }
+            if (line == null) {
+                break;
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                run.add(lineNumber, objectMapper.readValue(line, CreateWorkoutRequest.class));
+            } catch (JsonProcessingException e) {
+                run.fail(lineNumber, "invalid JSON");
+            }
+        }
+
+        return run.finish();
+    }
+
+    /**
+     * Each CSV row is one entry. Consecutive rows sharing a "workout" value belong
+     * to the same workout, whose fields are taken from its first row; without a
+     * "workout" column every row is its own workout.
+     */
+    public ImportReport importCsv(InputStream body, Long userId) throws IOException {
+        ImportRun run = new ImportRun(userId);
+        CsvReader reader = new CsvReader(
+                new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8)), maxLineLength);
+
+        List<String> names;
+        try {
+            names = reader.readRecord();
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("csv header: " + e.getMessage());
+        }
+        if (names == null) {
+            return run.finish();
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(), i);
+        }
+        for (String required : List.of("title", "duration_minutes", "calories_burned")) {
+            if (!columns.containsKey(required)) {
+                throw new ValidationException("csv header is missing column " + required);
+            }
+        }
+
+        CsvGroup group = null;
+        while (true) {
+            List<String> row;
+            try {
+                row = reader.readRecord();
+            } catch (IllegalArgumentException e) {
+                // The reader has skipped past the bad record
+                run.fail(reader.getRecordLine(), e.getMessage());
+                continue;
+            }
+            if (row == null) {
+                break;
+            }
+            if (row.size() == 1 && row.get(0).isBlank()) {
+                continue;
+            }
+            long lineNumber = reader.getRecordLine();
+
+            String key = field(row, columns, "workout");
+            if (group == null || key == null || !key.equals(group.key)) {
+                if (group != null) {
+                    group.submit(run);
+                }
+                group = new CsvGroup(key, lineNumber, maxEntriesPerWorkout);
+                group.start(row, columns);
+            }
+            group.addEntry(row, columns, lineNumber);
+        }
+        if (group != null) {
+            group.submit(run);
+        }
+
+        return run.finish();
+    }
+
+    private static String field(List<String> row, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= row.size()) {
+            return null;
+        }
+        String value = row.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static Integer intField(List<String> row, Map<String, Integer> columns, String name) {
+        String value = field(row, columns, name);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a whole number");
+        }
+    }
+
+    private static Double doubleField(List<String> row, Map<String, Integer> columns, String name) {
+        String value = field(row, columns, name);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Double.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a number");
+        }
+    }
+
+    private static final class CsvGroup {
+        private final String key;
+        private final long line;
+        private final int maxEntries;
+        private final CreateWorkoutRequest request = new CreateWorkoutRequest();
+        private String error;
+
+        private CsvGroup(String key, long line, int maxEntries) {
+            this.key = key;
+            this.line = line;
+            this.maxEntries = maxEntries;
+        }
+
+        private void start(List<String> row, Map<String, Integer> columns) {
+            try {
+                request.setTitle(field(row, columns, "title"));
+                request.setDescription(field(row, columns, "description"));
+                request.setDurationMinutes(intField(row, columns, "duration_minutes"));
+                request.setCaloriesBurned(intField(row, columns, "calories_burned"));
+                request.setEntries(new ArrayList<>());
+            } catch (IllegalArgumentException e) {
+                error = e.getMessage();
+            }
+        }
+
+        private void addEntry(List<String> row, Map<String, Integer> columns, long lineNumber) {
+            if (error != null || field(row, columns, "exercise_name") == null) {
+                return;
+            }
+            if (request.getEntries().size() >= maxEntries) {
+                // Stop collecting, the rest of the group's rows are skipped
+                error = "workout has more than " + maxEntries + " entries";
+                request.setEntries(null);
+                return;
+            }
+            try {
+                WorkoutEntry entry = new WorkoutEntry();
+                entry.setExerciseName(field(row, columns, "exercise_name"));
+                entry.setSets(intField(row, columns, "sets"));
+                entry.setReps(intField(row, columns, "reps"));
+                entry.setDurationSeconds(intField(row, columns, "duration_seconds"));
+                entry.setWeight(doubleField(row, columns, "weight"));
+                entry.setNotes(field(row, columns, "notes"));
+                Integer orderIndex = intField(row, columns, "order_index");
+                entry.setOrderIndex(orderIndex != null ? orderIndex : request.getEntries().size());
+                request.getEntries().add(entry);
+            } catch (IllegalArgumentException e) {
+                error = "line " + lineNumber + ": " + e.getMessage();
+            }
+        }
+
+        private void submit(ImportRun run) {
+            if (error != null) {
+                run.fail(line, error);
+            } else {
+                run.add(line, request);
+            }
+        }
+    }
+
+    private static final class PendingWorkout {
+        private final long line;
+        private final Workout workout;
+
+        private PendingWorkout(long line, Workout workout) {
+            this.line = line;
+            this.workout = workout;
+        }
+    }
+
+    private final class ImportRun {
+        private final Long userId;
+        private final List<PendingWorkout> chunk = new ArrayList<>(chunkSize);
+        private final List<ImportReport.ImportError> errors = new ArrayList<>();
+        private int imported;
+        private int failed;
+
+        private ImportRun(Long userId) {
+            this.userId = userId;
+        }
+
+        private void add(long line, CreateWorkoutRequest request) {
+            if (request.getEntries() != null && request.getEntries().size() > maxEntriesPerWorkout) {
+                fail(line, "workout has more than " + maxEntriesPerWorkout + " entries");
+                return;
+            }
+            Set<ConstraintViolation<CreateWorkoutRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                fail(line, violations.iterator().next().getMessage());
+                return;
+            }
+
+            try {
+                chunk.add(new PendingWorkout(line, WorkoutService.toWorkout(request, userId)));
+            } catch (ValidationException e) {
+                fail(line, e.getMessage());
+                return;
+            }
+
+            if (chunk.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        private void fail(long line, String error) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ImportReport.ImportError(line, error));
+            }
+        }
+
+        private void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+
+            List<Workout> workouts = new ArrayList<>(chunk.size());
+            for (PendingWorkout pending : chunk) {
+                workouts.add(pending.workout);
+            }
+
+            boolean[] saved = workoutBatchWriter.insert(workouts);
+            for (int i = 0; i < saved.length; i++) {
+                if (saved[i]) {
+                    imported++;
+                } else {
+                    fail(chunk.get(i).line, "workout could not be saved");
+                }
+            }
+
+            chunk.clear();
+        }
+
+        private ImportReport finish() {
+            flush();
+            return new ImportReport(imported, failed, errors);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.workoutapp.service;
+
+import com.workoutapp.dto.CreateWorkoutRequest;
+import com.workoutapp.dto.WorkoutResponse;
+import com.workoutapp.exception.ServiceUnavailableException;
+import com.workoutapp.model.Workout;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Opt-in group-commit path for POST /workouts. Validated workouts wait on a
+ * bounded queue, and a single writer thread inserts them in batches of up to
+ * batch-size, or whatever arrived within flush-interval-ms of the first. Each
+ * caller blocks until its batch commits, so it still gets its id. A full
+ * queue is rejected with 503 instead of growing without bound. If a batch
+ * fails, each caller retries its own workout on its own thread, so one bad
+ * record neither fails the others nor holds up the writer.
+ */
+@Service
+@ConditionalOnProperty(name = "app.ingest.group-commit.enabled", havingValue = "true")
+@Slf4j
+public class WorkoutIngestService implements IWorkoutIngestService {
+    private final WorkoutBatchWriter workoutBatchWriter;
+    private final BlockingQueue<PendingCreate> queue;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long maxWaitMillis;
+    private final Thread writer;
+    private final DistributionSummary batchSizes;
+    private final Counter rejected;
+    private volatile boolean running = true;
+
+    public WorkoutIngestService(WorkoutBatchWriter workoutBatchWriter,
+                                @Value("${app.ingest.group-commit.queue-capacity:10000}") int queueCapacity,
+                                @Value("${app.ingest.group-commit.batch-size:200}") int batchSize,
+                                @Value("${app.ingest.group-commit.flush-interval-ms:20}") long flushIntervalMillis,
+                                @Value("${app.ingest.group-commit.max-wait-ms:5000}") long maxWaitMillis,
+                                MeterRegistry meterRegistry) {
+        this.workoutBatchWriter = workoutBatchWriter;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.maxWaitMillis = maxWaitMillis;
+
+        this.batchSizes = DistributionSummary.builder("workouts.ingest.batch.size")
+                .description("Workouts written per group commit")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("workouts.ingest.rejected")
+                .description("Creates rejected because the ingest queue was full")
+                .register(meterRegistry);
+        Gauge.builder("workouts.ingest.queue", queue, BlockingQueue::size)
+                .description("Workouts waiting for the next group commit")
+                .register(meterRegistry);
+
+        this.writer = new Thread(this::runWriter, "workout-ingest-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+        log.info("Group-commit ingest enabled: batch size {}, flush interval {} ms", batchSize, flushIntervalMillis);
+    }
+
+    public WorkoutResponse createWorkout(CreateWorkoutRequest request, Long userId) {
+        PendingCreate pending = new PendingCreate(WorkoutService.toWorkout(request, userId));
+        if (!running || !queue.offer(pending)) {
+            rejected.increment();
+            throw new ServiceUnavailableException("server is busy, please try again later");
+        }
+
+        try {
+            try {
+                return pending.result.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // Still queued means it was never written and can be given up safely;
+                // otherwise its batch is in flight, so wait for the outcome
+                if (queue.remove(pending)) {
+                    throw new ServiceUnavailableException("server is busy, please try again later");
+                }
+                return pending.result.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+            }
+        } catch (TimeoutException e) {
+            throw new ServiceUnavailableException("timed out saving workout, it may still be saved");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("interrupted while saving workout");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof BatchFailedException) {
+                workoutBatchWriter.insertOne(pending.workout);
+                return WorkoutResponse.from(pending.workout);
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException("Failed to save workout", e.getCause());
+        }
+    }
+
+    private void runWriter() {
+        List<PendingCreate> batch = new ArrayList<>(batchSize);
+        try {
+            while (running || !queue.isEmpty()) {
+                PendingCreate first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                collect(batch);
+                write(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        batch.addAll(queue);
+        queue.clear();
+        for (PendingCreate pending : batch) {
+            pending.result.completeExceptionally(new ServiceUnavailableException("server is shutting down"));
+        }
+    }
+
+    // Fills the batch until it is full or the flush interval since the first workout has passed
+    private void collect(List<PendingCreate> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + flushIntervalNanos;
+        while (batch.size() < batchSize) {
+            if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            PendingCreate next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void write(List<PendingCreate> batch) {
+        List<Workout> workouts = new ArrayList<>(batch.size());
+        for (PendingCreate pending : batch) {
+            workouts.add(pending.workout);
+        }
+        batchSizes.record(workouts.size());
+
+        try {
+            workoutBatchWriter.insertAll(workouts);
+        } catch (DataAccessException e) {
+            log.debug("Group commit of {} workouts failed, callers will retry individually: {}",
+                    workouts.size(), e.getMessage());
+            for (PendingCreate pending : batch) {
+                pending.result.completeExceptionally(BatchFailedException.INSTANCE);
+            }
+            return;
+        } catch (RuntimeException e) {
+            log.error("Group commit of {} workouts failed", workouts.size(), e);
+            for (PendingCreate pending : batch) {
+                pending.result.completeExceptionally(e);
+            }
+            return;
+        }
+
+        for (PendingCreate pending : batch) {
+            pending.result.complete(WorkoutResponse.from(pending.workout));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // Stop accepting new workouts and let the writer drain what is queued
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private static final class PendingCreate {
+        private final Workout workout;
+        private final CompletableFuture<WorkoutResponse> result = new CompletableFuture<>();
+
+        private PendingCreate(Workout workout) {
+            this.workout = workout;
+        }
+    }
+
+    // Tells the caller to save its workout alone; carries no stack trace since it is shared
+    private static final class BatchFailedException extends RuntimeException {
+        private static final BatchFailedException INSTANCE = new BatchFailedException();
+
+        private BatchFailedException() {
+            super("group commit failed", null, false, false);
+        }
+    }
+}
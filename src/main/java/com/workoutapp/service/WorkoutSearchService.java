@@ -0,0 +1,63 @@
+package com.workoutapp.service;
+
+import com.workoutapp.dto.WorkoutSearchHit;
+import com.workoutapp.dto.WorkoutSearchPage;
+import com.workoutapp.exception.ValidationException;
+import com.workoutapp.repository.WorkoutSearchRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Service
+public class WorkoutSearchService implements IWorkoutSearchService {
+    private final WorkoutSearchRepository workoutSearchRepository;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int maxOffset;
+
+    public WorkoutSearchService(WorkoutSearchRepository workoutSearchRepository,
+                                @Value("${app.search.default-page-size:20}") int defaultPageSize,
+                                @Value("${app.search.max-page-size:50}") int maxPageSize,
+                                @Value("${app.search.max-offset:1000}") int maxOffset) {
+        this.workoutSearchRepository = workoutSearchRepository;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.maxOffset = maxOffset;
+    }
+
+    @Transactional(readOnly = true)
+    public WorkoutSearchPage search(Long userId, String query, Integer limit, Integer offset) {
+        if (query == null || query.isBlank()) {
+            throw new ValidationException("q is required");
+        }
+        int pageSize = limit == null ? defaultPageSize : limit;
+        if (pageSize < 1) {
+            throw new ValidationException("limit must be greater than 0");
+        }
+        pageSize = Math.min(pageSize, maxPageSize);
+        int start = offset == null ? 0 : offset;
+        if (start < 0) {
+            throw new ValidationException("offset cannot be negative");
+        }
+        if (start > maxOffset) {
+            throw new ValidationException("offset cannot be greater than " + maxOffset);
+        }
+
+        // Fetch one extra row to tell whether another page exists
+        List<WorkoutSearchHit> hits = workoutSearchRepository.search(userId, query, pageSize + 1, start);
+        if (hits.size() <= pageSize) {
+            return new WorkoutSearchPage(hits, null);
+        }
+        return new WorkoutSearchPage(hits.subList(0, pageSize), start + pageSize);
+    }
+
+    /**
+     * Must run in the transaction that wrote the workouts, after a flush.
+     */
+    public void reindex(Collection<Long> workoutIds) {
+        workoutSearchRepository.reindex(workoutIds);
+    }
+}
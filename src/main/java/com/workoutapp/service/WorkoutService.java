@@ -1,24 +1,87 @@
 package com.workoutapp.service;
 
+import com.workoutapp.cache.WorkoutResponseCache;
 import com.workoutapp.dto.CreateWorkoutRequest;
+import com.workoutapp.dto.PatchWorkoutRequest;
 import com.workoutapp.dto.UpdateWorkoutRequest;
+import com.workoutapp.dto.WorkoutEntryResponse;
+import com.workoutapp.dto.WorkoutPage;
+import com.workoutapp.dto.WorkoutResponse;
+import com.workoutapp.dto.WorkoutSummary;
+import com.workoutapp.exception.PreconditionFailedException;
 import com.workoutapp.exception.ResourceNotFoundException;
 import com.workoutapp.exception.UnauthorizedException;
 import com.workoutapp.exception.ValidationException;
 import com.workoutapp.model.Workout;
 import com.workoutapp.model.WorkoutEntry;
+import com.workoutapp.repository.WorkoutEntryRepository;
 import com.workoutapp.repository.WorkoutRepository;
-import lombok.RequiredArgsConstructor;
+import com.workoutapp.repository.WorkoutWriteRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 @Service
-@RequiredArgsConstructor
 public class WorkoutService implements IWorkoutService {
     private final WorkoutRepository workoutRepository;
+    private final WorkoutEntryRepository workoutEntryRepository;
+    private final WorkoutWriteRepository workoutWriteRepository;
+    private final WorkoutResponseCache workoutResponseCache;
+    private final IStatsService statsService;
+    private final IProgressService progressService;
+    private final IWorkoutSearchService workoutSearchService;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public WorkoutService(WorkoutRepository workoutRepository,
+                          WorkoutEntryRepository workoutEntryRepository,
+                          WorkoutWriteRepository workoutWriteRepository,
+                          WorkoutResponseCache workoutResponseCache,
+                          IStatsService statsService,
+                          IProgressService progressService,
+                          IWorkoutSearchService workoutSearchService,
+                          @Value("${app.workouts.default-page-size:20}") int defaultPageSize,
+                          @Value("${app.workouts.max-page-size:100}") int maxPageSize) {
+        this.workoutRepository = workoutRepository;
+        this.workoutEntryRepository = workoutEntryRepository;
+        this.workoutWriteRepository = workoutWriteRepository;
+        this.workoutResponseCache = workoutResponseCache;
+        this.statsService = statsService;
+        this.progressService = progressService;
+        this.workoutSearchService = workoutSearchService;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
 
     @Transactional
-    public Workout createWorkout(CreateWorkoutRequest request, Long userId) {
+    public WorkoutResponse createWorkout(CreateWorkoutRequest request, Long userId) {
+        Workout workout = workoutRepository.saveAndFlush(toWorkout(request, userId));
+        statsService.recordCreated(List.of(workout));
+        progressService.recordCreated(List.of(workout));
+        workoutSearchService.reindex(List.of(workout.getId()));
+        return WorkoutResponse.from(workout);
+    }
+
+    /**
+     * Builds a new workout entity from a validated create request. Shared with
+     * the bulk import so both paths apply the same rules.
+     */
+    static Workout toWorkout(CreateWorkoutRequest request, Long userId) {
+        validateEntries(request.getEntries());
+
         Workout workout = new Workout();
         workout.setUserId(userId);
         workout.setTitle(request.getTitle());
@@ -34,22 +97,148 @@ public class WorkoutService implements IWorkoutService {
             workout.setEntries(request.getEntries());
         }
 
-        return workoutRepository.save(workout);
+        return workout;
+    }
+
+    static void validateEntries(List<WorkoutEntry> entries) {
+        if (entries == null) {
+            return;
+        }
+        for (WorkoutEntry entry : entries) {
+            if (entry.getExerciseName() == null || entry.getExerciseName().isBlank()) {
+                throw new ValidationException("exercise_name is required");
+            }
+            if (entry.getExerciseName().length() > 255) {
+                throw new ValidationException("exercise_name cannot be greater than 255 characters");
+            }
+            if (entry.getSets() == null || entry.getSets() <= 0) {
+                throw new ValidationException("sets must be greater than 0");
+            }
+            if ((entry.getReps() == null) == (entry.getDurationSeconds() == null)) {
+                throw new ValidationException("entry must have either reps or duration_seconds");
+            }
+            if (entry.getOrderIndex() == null) {
+                throw new ValidationException("order_index is required");
+            }
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public WorkoutResponse getWorkoutById(Long id) {
+        // One fetch-join query; the response is built before the connection is released
+        return workoutRepository.findWithEntriesById(id)
+                .map(WorkoutResponse::from)
+                .orElseThrow(() -> new ResourceNotFoundException("workout not found"));
+    }
+
+    public Long getWorkoutVersion(Long id) {
+        return workoutRepository.findVersionById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("workout not found"));
     }
 
-    public Workout getWorkoutById(Long id) {
+    private Workout findWorkout(Long id) {
         return workoutRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("workout not found"));
     }
 
+    @Transactional(readOnly = true)
+    public WorkoutPage listWorkouts(Long userId, String cursor, Integer limit) {
+        int pageSize = limit == null ? defaultPageSize : limit;
+        if (pageSize < 1) {
+            throw new ValidationException("limit must be greater than 0");
+        }
+        pageSize = Math.min(pageSize, maxPageSize);
+
+        // Fetch one extra row to learn whether another page exists
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        List<Workout> workouts;
+        if (cursor == null || cursor.isEmpty()) {
+            workouts = workoutRepository.findFirstPageByUserId(userId, page);
+        } else {
+            Cursor position = decodeCursor(cursor);
+            workouts = workoutRepository.findPageByUserIdBefore(userId, position.createdAt, position.id, page);
+        }
+
+        boolean hasMore = workouts.size() > pageSize;
+        if (hasMore) {
+            workouts = workouts.subList(0, pageSize);
+        }
+
+        // Load all entries for the page in a single query
+        List<Long> ids = new ArrayList<>(workouts.size());
+        for (Workout workout : workouts) {
+            ids.add(workout.getId());
+        }
+        Map<Long, List<WorkoutEntryResponse>> entriesByWorkout = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (WorkoutEntryResponse entry : workoutEntryRepository.findResponsesByWorkoutIds(ids)) {
+                entriesByWorkout.computeIfAbsent(entry.getWorkoutId(), id -> new ArrayList<>()).add(entry);
+            }
+        }
+
+        List<WorkoutResponse> responses = new ArrayList<>(workouts.size());
+        for (Workout workout : workouts) {
+            responses.add(WorkoutResponse.from(workout, entriesByWorkout.getOrDefault(workout.getId(), List.of())));
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            Workout last = workouts.get(workouts.size() - 1);
+            nextCursor = encodeCursor(last.getCreatedAt(), last.getId());
+        }
+        return new WorkoutPage(responses, nextCursor);
+    }
+
+    private static String encodeCursor(LocalDateTime createdAt, Long id) {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Cursor decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator < 0) {
+                throw new ValidationException("invalid cursor");
+            }
+            return new Cursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ValidationException("invalid cursor");
+        }
+    }
+
+    private static final class Cursor {
+        private final LocalDateTime createdAt;
+        private final Long id;
+
+        private Cursor(LocalDateTime createdAt, Long id) {
+            this.createdAt = createdAt;
+            this.id = id;
+        }
+    }
+
     @Transactional
-    public Workout updateWorkout(Long workoutId, UpdateWorkoutRequest request, Long userId) {
-        Workout existing = getWorkoutById(workoutId);
+    public WorkoutResponse updateWorkout(Long workoutId, UpdateWorkoutRequest request, Long userId,
+                                         Long expectedVersion) {
+        Workout existing = findWorkout(workoutId);
 
         // Check authorization
         if (!existing.getUserId().equals(userId)) {
             throw new UnauthorizedException("you are not authorized to update this workout");
         }
+        // A write that lands between here and the flush is caught by the @Version check
+        if (expectedVersion != null && !expectedVersion.equals(existing.getVersion())) {
+            throw new PreconditionFailedException("workout has been modified");
+        }
+
+        int previousDuration = existing.getDurationMinutes();
+        int previousCalories = existing.getCaloriesBurned();
+        List<String> previousSearchText = searchText(existing);
+
+        // Entry-only changes don't dirty the workout row, so touch updated_at to bump the version
+        existing.setUpdatedAt(LocalDateTime.now());
+        workoutResponseCache.invalidate(workoutId);
 
         // Update fields
         if (request.getTitle() != null) {
@@ -77,26 +266,137 @@ public class WorkoutService implements IWorkoutService {
             existing.setCaloriesBurned(request.getCaloriesBurned());
         }
         if (request.getEntries() != null) {
-            // Replace entries
-            existing.getEntries().clear();
-            for (WorkoutEntry entry : request.getEntries()) {
-                entry.setWorkout(existing);
-                existing.getEntries().add(entry);
+            validateEntries(request.getEntries());
+            mergeEntries(existing, request.getEntries());
+        }
+
+        statsService.recordChanged(userId, existing.getCreatedAt(),
+                existing.getDurationMinutes() - previousDuration,
+                existing.getCaloriesBurned() - previousCalories);
+
+        Workout saved = workoutRepository.saveAndFlush(existing);
+        if (!searchText(saved).equals(previousSearchText)) {
+            workoutSearchService.reindex(List.of(workoutId));
+        }
+        if (request.getEntries() != null) {
+            progressService.recordChanged(userId, saved.getCreatedAt());
+        }
+
+        return WorkoutResponse.from(saved);
+    }
+
+    // The fields that make up search_vector, so an update that keeps them can skip the reindex
+    private static List<String> searchText(Workout workout) {
+        List<String> text = new ArrayList<>(2 + 2 * workout.getEntries().size());
+        text.add(workout.getTitle());
+        text.add(workout.getDescription());
+        for (WorkoutEntry entry : workout.getEntries()) {
+            text.add(entry.getExerciseName());
+            text.add(entry.getNotes());
+        }
+        return text;
+    }
+
+    /**
+     * Makes the workout's entries match the requested list while touching as few
+     * rows as possible. Requested entries are matched to existing ones by id, then
+     * by order_index; matched rows get only their changed columns updated,
+     * unmatched existing rows are deleted and the rest are inserted.
+     */
+    static void mergeEntries(Workout workout, List<WorkoutEntry> requested) {
+        Map<Long, WorkoutEntry> byId = new HashMap<>();
+        Map<Integer, WorkoutEntry> byOrderIndex = new HashMap<>();
+        for (WorkoutEntry entry : workout.getEntries()) {
+            byId.put(entry.getId(), entry);
+            byOrderIndex.putIfAbsent(entry.getOrderIndex(), entry);
+        }
+
+        Set<WorkoutEntry> kept = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<WorkoutEntry> added = new ArrayList<>();
+        for (WorkoutEntry incoming : requested) {
+            WorkoutEntry match = incoming.getId() != null ? byId.get(incoming.getId()) : null;
+            if (match == null || kept.contains(match)) {
+                match = byOrderIndex.get(incoming.getOrderIndex());
+            }
+
+            if (match != null && !kept.contains(match)) {
+                copyFields(incoming, match);
+                kept.add(match);
+            } else {
+                // Never trust a client-supplied id for a row we are inserting
+                incoming.setId(null);
+                incoming.setWorkout(workout);
+                added.add(incoming);
             }
         }
 
-        return workoutRepository.save(existing);
+        workout.getEntries().removeIf(entry -> !kept.contains(entry));
+        workout.getEntries().addAll(added);
     }
 
+    // Hibernate's dirty check skips values that did not change, and @DynamicUpdate leaves them out of the UPDATE
+    private static void copyFields(WorkoutEntry source, WorkoutEntry target) {
+        target.setExerciseName(source.getExerciseName());
+        target.setSets(source.getSets());
+        target.setReps(source.getReps());
+        target.setDurationSeconds(source.getDurationSeconds());
+        target.setWeight(source.getWeight());
+        target.setNotes(source.getNotes());
+        target.setOrderIndex(source.getOrderIndex());
+    }
+
+    /**
+     * Updates only the supplied scalar fields with one conditional UPDATE,
+     * without loading the workout or its entries.
+     */
     @Transactional
-    public void deleteWorkout(Long workoutId, Long userId) {
-        Workout workout = getWorkoutById(workoutId);
+    public WorkoutSummary patchWorkout(Long workoutId, PatchWorkoutRequest request, Long userId,
+                                       Long expectedVersion) {
+        if (request.getTitle() == null && request.getDescription() == null
+                && request.getDurationMinutes() == null && request.getCaloriesBurned() == null) {
+            throw new ValidationException("no fields to update");
+        }
+        if (request.getTitle() != null && request.getTitle().isEmpty()) {
+            throw new ValidationException("title cannot be empty");
+        }
 
-        // Check authorization
-        if (!workout.getUserId().equals(userId)) {
-            throw new UnauthorizedException("you are not authorized to delete this workout");
+        WorkoutWriteRepository.PatchedWorkout patched = workoutWriteRepository.patchOwned(workoutId, userId,
+                        expectedVersion, request.getTitle(), request.getDescription(),
+                        request.getDurationMinutes(), request.getCaloriesBurned())
+                .orElseThrow(() -> patchFailure(workoutId, userId));
+        WorkoutSummary workout = patched.getWorkout();
+
+        workoutResponseCache.invalidate(workoutId);
+        statsService.recordChanged(userId, workout.getCreatedAt(),
+                workout.getDurationMinutes() - patched.getPreviousDurationMinutes(),
+                workout.getCaloriesBurned() - patched.getPreviousCaloriesBurned());
+        if (request.getTitle() != null || request.getDescription() != null) {
+            workoutSearchService.reindex(List.of(workoutId));
+        }
+        return workout;
+    }
+
+    private RuntimeException patchFailure(Long workoutId, Long userId) {
+        Long ownerId = workoutRepository.findUserIdByWorkoutId(workoutId).orElse(null);
+        if (ownerId == null) {
+            return new ResourceNotFoundException("workout not found");
         }
+        if (!ownerId.equals(userId)) {
+            return new UnauthorizedException("you are not authorized to update this workout");
+        }
+        return new PreconditionFailedException("workout has been modified");
+    }
+
+    @Transactional
+    public void deleteWorkout(Long workoutId, Long userId) {
+        WorkoutWriteRepository.DeletedWorkout deleted = workoutWriteRepository.deleteOwned(workoutId, userId)
+                .orElseThrow(() -> workoutRepository.findUserIdByWorkoutId(workoutId).isPresent()
+                        ? new UnauthorizedException("you are not authorized to delete this workout")
+                        : new ResourceNotFoundException("workout not found"));
 
-        workoutRepository.deleteById(workoutId);
+        workoutResponseCache.invalidate(workoutId);
+        statsService.recordDeleted(userId, deleted.getCreatedAt(),
+                deleted.getDurationMinutes(), deleted.getCaloriesBurned());
+        progressService.recordChanged(userId, deleted.getCreatedAt());
     }
 }
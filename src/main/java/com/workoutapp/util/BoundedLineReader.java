@@ -0,0 +1,53 @@
+package com.workoutapp.util;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads lines like BufferedReader.readLine, but never buffers more than
+ * maxLineLength characters, so one oversized line can't exhaust memory.
+ */
+public final class BoundedLineReader {
+    private final Reader reader;
+    private final int maxLineLength;
+    private final StringBuilder line = new StringBuilder();
+    private boolean skipLineFeed;
+
+    public BoundedLineReader(Reader reader, int maxLineLength) {
+        this.reader = reader;
+        this.maxLineLength = maxLineLength;
+    }
+
+    /**
+     * Returns the next line without its terminator (\n, \r\n or \r), or null
+     * at the end of input. Throws IllegalArgumentException for a line that is
+     * too long, after skipping past it, so the next call reads the line after.
+     */
+    public String readLine() throws IOException {
+        line.setLength(0);
+        boolean tooLong = false;
+        int c = reader.read();
+        if (c == '\n' && skipLineFeed) {
+            c = reader.read();
+        }
+        skipLineFeed = false;
+        if (c == -1) {
+            return null;
+        }
+
+        while (c != -1 && c != '\n' && c != '\r') {
+            if (line.length() < maxLineLength) {
+                line.append((char) c);
+            } else {
+                tooLong = true;
+            }
+            c = reader.read();
+        }
+        skipLineFeed = c == '\r';
+
+        if (tooLong) {
+            throw new IllegalArgumentException("line is longer than " + maxLineLength + " characters");
+        }
+        return line.toString();
+    }
+}
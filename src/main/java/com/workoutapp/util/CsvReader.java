@@ -0,0 +1,132 @@
+package com.workoutapp.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal RFC 4180 record reader: comma separated, optionally double-quoted,
+ * with "" as an escaped quote inside quotes. Quoted fields may span lines, so
+ * values written by CsvWriter with line breaks read back as one record.
+ * A quote only opens a quoted field at the start of the field. Records
+ * longer than the limit are skipped rather than buffered.
+ */
+public final class CsvReader {
+    private final Reader reader;
+    private final int maxRecordLength;
+    private int pending = -2;
+    private long line = 1;
+    private long recordLine;
+
+    public CsvReader(Reader reader, int maxRecordLength) {
+        this.reader = reader;
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    /**
+     * Returns the next record's fields, or null at the end of input. Blank
+     * lines are skipped. Throws IllegalArgumentException if the record is too
+     * long, after skipping past it, or if the input ends inside a quoted field.
+     */
+    public List<String> readRecord() throws IOException {
+        while (true) {
+            int c = peek();
+            if (c == -1) {
+                return null;
+            }
+            if (c == '\r' || c == '\n') {
+                endOfLine();
+                continue;
+            }
+            recordLine = line;
+            return parseRecord();
+        }
+    }
+
+    /**
+     * Line number on which the last returned record started, counting from 1.
+     */
+    public long getRecordLine() {
+        return recordLine;
+    }
+
+    private List<String> parseRecord() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean fieldStart = true;
+        int length = 0;
+
+        while (true) {
+            int c = peek();
+            if (++length > maxRecordLength) {
+                // Keep parsing so the skipped record ends where it should, but drop its contents
+                fields.clear();
+                field.setLength(0);
+            }
+            if (quoted) {
+                if (c == -1) {
+                    throw new IllegalArgumentException("unterminated quoted field");
+                }
+                next();
+                if (c == '"') {
+                    if (peek() == '"') {
+                        next();
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    if (c == '\n' || (c == '\r' && peek() != '\n')) {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == -1 || c == '\r' || c == '\n') {
+                if (c != -1) {
+                    endOfLine();
+                }
+                if (length > maxRecordLength) {
+                    throw new IllegalArgumentException("record is longer than " + maxRecordLength + " characters");
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                next();
+                if (c == '"' && fieldStart) {
+                    quoted = true;
+                    fieldStart = false;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                    fieldStart = true;
+                } else {
+                    field.append((char) c);
+                    fieldStart = false;
+                }
+            }
+        }
+    }
+
+    // Consumes \n, \r\n or a lone \r
+    private void endOfLine() throws IOException {
+        if (next() == '\r' && peek() == '\n') {
+            next();
+        }
+        line++;
+    }
+
+    private int peek() throws IOException {
+        if (pending == -2) {
+            pending = reader.read();
+        }
+        return pending;
+    }
+
+    private int next() throws IOException {
+        int c = peek();
+        pending = -2;
+        return c;
+    }
+}
@@ -0,0 +1,69 @@
+package com.workoutapp.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Encodes {"error": "..."} bodies straight to UTF-8 bytes without going
+ * through Jackson. Bodies for the most frequent constant messages are encoded
+ * once up front; any other message, which may carry request data, is encoded
+ * per call and never retained.
+ */
+public final class ErrorBody {
+    private static final Map<String, byte[]> CONSTANT_BODIES = encodeAll(
+            "internal server error",
+            "workout not found",
+            "workout has been modified",
+            "you must be logged in",
+            "invalid authorization header",
+            "token expired or invalid",
+            "server is busy, please try again later");
+    private static final byte[] NULL_MESSAGE = "{\"error\":null}".getBytes(StandardCharsets.UTF_8);
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private ErrorBody() {
+    }
+
+    /**
+     * Returns the encoded body for the message. The array is shared and must
+     * not be modified.
+     */
+    public static byte[] of(String message) {
+        if (message == null) {
+            return NULL_MESSAGE;
+        }
+        byte[] body = CONSTANT_BODIES.get(message);
+        return body != null ? body : encode(message);
+    }
+
+    private static Map<String, byte[]> encodeAll(String... messages) {
+        Map<String, byte[]> bodies = new HashMap<>();
+        for (String message : messages) {
+            bodies.put(message, encode(message));
+        }
+        return Map.copyOf(bodies);
+    }
+
+    static byte[] encode(String message) {
+        StringBuilder json = new StringBuilder(message.length() + 16).append("{\"error\":\"");
+        for (int i = 0; i < message.length(); i++) {
+            char c = message.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        return json.append("\"}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
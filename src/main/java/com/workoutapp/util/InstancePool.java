@@ -0,0 +1,33 @@
+package com.workoutapp.util;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.function.Supplier;
+
+/**
+ * Small bounded pool of reusable, non-thread-safe instances such as
+ * MessageDigest or Mac. Unlike a ThreadLocal it also works when every request
+ * runs on a fresh virtual thread. An empty pool creates a new instance, and
+ * instances released to a full pool are dropped.
+ */
+public final class InstancePool<T> {
+    private final ArrayBlockingQueue<T> idle;
+    private final Supplier<T> factory;
+
+    public InstancePool(int capacity, Supplier<T> factory) {
+        this.idle = new ArrayBlockingQueue<>(capacity);
+        this.factory = factory;
+    }
+
+    public T acquire() {
+        T instance = idle.poll();
+        return instance != null ? instance : factory.get();
+    }
+
+    /**
+     * Returns an instance to the pool. It must be in its reset state, which
+     * MessageDigest.digest() and Mac.doFinal() leave it in.
+     */
+    public void release(T instance) {
+        idle.offer(instance);
+    }
+}
@@ -1,27 +1,80 @@
 package com.workoutapp.util;
 
-import com.fasterxml.jackson.annotation.JsonAnyGetter;
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
 
-@Data
-@NoArgsConstructor
-@AllArgsConstructor
+/**
+ * JSON envelope such as {"workout": {...}}. Holds its one or two keys in
+ * arrays and writes them through a dedicated serializer with pre-encoded
+ * names, instead of going through a HashMap and @JsonAnyGetter.
+ */
+@JsonSerialize(using = JsonResponse.Serializer.class)
 public class JsonResponse {
-    private Map<String, Object> data = new HashMap<>();
+    // Keys are code constants, so this stays small; the cap guards against misuse
+    private static final int MAX_CACHED_KEYS = 64;
+    private static final ConcurrentHashMap<String, SerializedString> KEYS = new ConcurrentHashMap<>();
 
-    @JsonAnyGetter
-    public Map<String, Object> getData() {
-        return data;
+    private SerializedString[] keys = new SerializedString[2];
+    private Object[] values = new Object[2];
+    private int size;
+
+    private JsonResponse() {
     }
 
     public static JsonResponse of(String key, Object value) {
-        JsonResponse response = new JsonResponse();
-        response.data.put(key, value);
-        return response;
+        return new JsonResponse().and(key, value);
+    }
+
+    public JsonResponse and(String key, Object value) {
+        for (int i = 0; i < size; i++) {
+            if (keys[i].getValue().equals(key)) {
+                values[i] = value;
+                return this;
+            }
+        }
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        keys[size] = keyFor(key);
+        values[size] = value;
+        size++;
+        return this;
+    }
+
+    private static SerializedString keyFor(String key) {
+        SerializedString cached = KEYS.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        SerializedString created = new SerializedString(key);
+        if (KEYS.size() < MAX_CACHED_KEYS) {
+            KEYS.putIfAbsent(key, created);
+        }
+        return created;
+    }
+
+    public static class Serializer extends StdSerializer<JsonResponse> {
+        public Serializer() {
+            super(JsonResponse.class);
+        }
+
+        @Override
+        public void serialize(JsonResponse response, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            generator.writeStartObject(response);
+            for (int i = 0; i < response.size; i++) {
+                generator.writeFieldName(response.keys[i]);
+                provider.defaultSerializeValue(response.values[i], generator);
+            }
+            generator.writeEndObject();
+        }
     }
 }
@@ -1,18 +1,207 @@
 package com.workoutapp.util;
 
+import com.workoutapp.exception.ServiceUnavailableException;
+import com.workoutapp.repository.AppSettingRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * BCrypt hashing and verification. The work runs on a dedicated pool sized to
+ * the CPU count with a bounded queue, so a burst of logins can't take over the
+ * request threads; callers get a ServiceUnavailableException when the queue is full.
+ * The BCrypt cost is either fixed by configuration or calibrated at startup to
+ * the highest cost within [min, max] whose hash time stays under the target.
+ * A calibrated cost is published to app_settings by the first node and reused
+ * by every other one, so all nodes agree and hashes at any other cost, higher
+ * or lower, are rehashed on login.
+ */
 @Component
+@Slf4j
 public class PasswordUtil {
-    private static final PasswordEncoder encoder = new BCryptPasswordEncoder(12);
+    static final String COST_SETTING = "password.bcrypt-cost";
+    private static final String CALIBRATION_PASSWORD = "calibration-password";
+    private static final int CALIBRATION_SAMPLES = 3;
+
+    private final int cost;
+    private final PasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final Timer hashTimer;
+    private final Timer verifyTimer;
+
+    public PasswordUtil(@Value("${app.password.threads:0}") int threads,
+                        @Value("${app.password.queue-capacity:64}") int queueCapacity,
+                        @Value("${app.password.cost:0}") int fixedCost,
+                        @Value("${app.password.min-cost:12}") int minCost,
+                        @Value("${app.password.max-cost:14}") int maxCost,
+                        @Value("${app.password.target-millis:250}") long targetMillis,
+                        AppSettingRepository appSettingRepository,
+                        MeterRegistry meterRegistry) {
+        if (minCost > maxCost) {
+            throw new IllegalArgumentException("app.password.min-cost must not exceed app.password.max-cost");
+        }
+        if (fixedCost > 0) {
+            if (fixedCost < minCost) {
+                throw new IllegalArgumentException("app.password.cost must be at least " + minCost);
+            }
+            this.cost = fixedCost;
+        } else {
+            this.cost = publishedCost(appSettingRepository, minCost, maxCost, targetMillis);
+        }
+        this.encoder = new BCryptPasswordEncoder(cost);
+        log.info("Using BCrypt cost {}", cost);
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+
+        this.hashTimer = Timer.builder("password.hash")
+                .description("Time spent computing BCrypt hashes")
+                .tag("operation", "hash")
+                .register(meterRegistry);
+        this.verifyTimer = Timer.builder("password.hash")
+                .description("Time spent computing BCrypt hashes")
+                .tag("operation", "verify")
+                .register(meterRegistry);
+        Gauge.builder("password.hash.queue", executor, e -> e.getQueue().size())
+                .description("Password hashing tasks waiting for a thread")
+                .register(meterRegistry);
+        Gauge.builder("password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashing tasks currently running")
+                .register(meterRegistry);
+    }
 
     public String hashPassword(String plaintextPassword) {
-        return encoder.encode(plaintextPassword);
+        return submit(() -> hashTimer.record(() -> encoder.encode(plaintextPassword)));
     }
 
     public boolean matches(String plaintextPassword, String hashedPassword) {
-        return encoder.matches(plaintextPassword, hashedPassword);
+        return submit(() -> verifyTimer.record(() -> encoder.matches(plaintextPassword, hashedPassword)));
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    /**
+     * True if the hash was produced with a cost other than the current one,
+     * or isn't a BCrypt hash we can parse.
+     */
+    public boolean needsRehash(String hashedPassword) {
+        return costOf(hashedPassword) != cost;
+    }
+
+    /**
+     * Hashes the password on the hashing pool without waiting for the result.
+     * Returns false if the pool is saturated, in which case nothing is run.
+     */
+    public boolean hashPasswordInBackground(String plaintextPassword, Consumer<String> callback) {
+        try {
+            executor.execute(() -> callback.accept(hashTimer.record(() -> encoder.encode(plaintextPassword))));
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    private static int costOf(String hashedPassword) {
+        // Format: $2a$12$<salt+hash>
+        if (hashedPassword == null || hashedPassword.length() < 7 || hashedPassword.charAt(3) != '$') {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(hashedPassword, 4, 6, 10);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // Calibrates only if no node has published a cost yet; delete the row to recalibrate
+    private static int publishedCost(AppSettingRepository appSettingRepository, int minCost, int maxCost,
+                                     long targetMillis) {
+        String published = appSettingRepository.find(COST_SETTING)
+                .orElseGet(() -> appSettingRepository.putIfAbsent(COST_SETTING,
+                        Integer.toString(calibrateCost(minCost, maxCost, targetMillis))));
+        int cost = Integer.parseInt(published);
+        if (cost < minCost || cost > maxCost) {
+            log.warn("Published BCrypt cost {} is outside [{}, {}], clamping", cost, minCost, maxCost);
+            cost = Math.max(minCost, Math.min(maxCost, cost));
+        }
+        return cost;
+    }
+
+    private static int calibrateCost(int minCost, int maxCost, long targetMillis) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minCost);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < CALIBRATION_SAMPLES; i++) {
+            long start = System.nanoTime();
+            probe.encode(CALIBRATION_PASSWORD);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        // Each additional cost step doubles the work
+        long targetNanos = TimeUnit.MILLISECONDS.toNanos(targetMillis);
+        int calibrated = minCost;
+        while (calibrated < maxCost && best * 2 <= targetNanos) {
+            best *= 2;
+            calibrated++;
+        }
+        log.info("Calibrated BCrypt cost {} for a {} ms target", calibrated, targetMillis);
+        return calibrated;
+    }
+
+    private <T> T submit(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new ServiceUnavailableException("server is busy, please try again later");
+        }
+
+        // Includes the time spent queued for a hashing thread, which is what the request sees
+        long start = System.nanoTime();
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException("Failed to hash password", e.getCause());
+        } finally {
+            RequestStats.recordPassword(System.nanoTime() - start);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
     }
 }
@@ -0,0 +1,73 @@
+package com.workoutapp.util;
+
+/**
+ * Per-request counters for the slow-request log and SQL metrics: SQL
+ * statements prepared, time spent waiting for connections, verifying the
+ * token and hashing passwords. Bound to the request thread by
+ * RequestMetricsFilter; the record methods do nothing on other threads.
+ */
+public final class RequestStats {
+    private static final ThreadLocal<RequestStats> CURRENT = new ThreadLocal<>();
+
+    private int sqlStatements;
+    private long connectionWaitNanos;
+    private long authNanos;
+    private long passwordNanos;
+
+    private RequestStats() {
+    }
+
+    public static RequestStats begin() {
+        RequestStats stats = new RequestStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    public static void recordSqlStatement() {
+        RequestStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.sqlStatements++;
+        }
+    }
+
+    public static void recordConnectionWait(long nanos) {
+        RequestStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.connectionWaitNanos += nanos;
+        }
+    }
+
+    public static void recordAuth(long nanos) {
+        RequestStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.authNanos += nanos;
+        }
+    }
+
+    public static void recordPassword(long nanos) {
+        RequestStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.passwordNanos += nanos;
+        }
+    }
+
+    public int getSqlStatements() {
+        return sqlStatements;
+    }
+
+    public long getConnectionWaitNanos() {
+        return connectionWaitNanos;
+    }
+
+    public long getAuthNanos() {
+        return authNanos;
+    }
+
+    public long getPasswordNanos() {
+        return passwordNanos;
+    }
+}
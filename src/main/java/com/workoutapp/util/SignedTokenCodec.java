@@ -0,0 +1,153 @@
+package com.workoutapp.util;
+
+import com.workoutapp.model.UserPrincipal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+
+/**
+ * Issues and verifies stateless tokens of the form
+ * {@code v1.<base64url payload>.<base64url HMAC-SHA256>}. The payload carries
+ * the user id, scope, issue time, expiry and username, so verification needs
+ * no database lookup.
+ */
+@Component
+public class SignedTokenCodec {
+    public static final String PREFIX = "v1.";
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder decoder = Base64.getUrlDecoder();
+
+    private final boolean issueSigned;
+    private final InstancePool<Mac> mac;
+
+    public SignedTokenCodec(@Value("${app.token.mode:opaque}") String mode,
+                            @Value("${app.token.signing-key:}") String signingKey) {
+        this.issueSigned = "signed".equalsIgnoreCase(mode);
+        if (!issueSigned && !"opaque".equalsIgnoreCase(mode)) {
+            throw new IllegalStateException("app.token.mode must be 'opaque' or 'signed'");
+        }
+
+        if (signingKey == null || signingKey.isBlank()) {
+            if (issueSigned) {
+                throw new IllegalStateException("app.token.signing-key is required when app.token.mode=signed");
+            }
+            this.mac = null;
+            return;
+        }
+
+        SecretKeySpec key = new SecretKeySpec(Base64.getDecoder().decode(signingKey), ALGORITHM);
+        Mac prototype;
+        try {
+            prototype = Mac.getInstance(ALGORITHM);
+            prototype.init(key);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to initialize token signer", e);
+        }
+        // Cloning an initialized Mac skips the provider lookup and key setup
+        this.mac = new InstancePool<>(Runtime.getRuntime().availableProcessors() * 2, () -> {
+            try {
+                return (Mac) prototype.clone();
+            } catch (CloneNotSupportedException e) {
+                throw new IllegalStateException("Token signer cannot be cloned", e);
+            }
+        });
+    }
+
+    public boolean isIssuingSigned() {
+        return issueSigned;
+    }
+
+    public static boolean isSigned(CharSequence token) {
+        return token.length() > PREFIX.length()
+                && PREFIX.contentEquals(token.subSequence(0, PREFIX.length()));
+    }
+
+    public TokenUtil.TokenData generateToken(Long userId, String username, String scope, long ttlHours) {
+        LocalDateTime expiry = LocalDateTime.now().plusHours(ttlHours);
+        String payload = userId + "|" + scope + "|" + System.currentTimeMillis() + "|"
+                + expiry.atZone(ZoneId.systemDefault()).toEpochSecond() + "|" + username;
+
+        String encodedPayload = encoder.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        String signature = encoder.encodeToString(sign(encodedPayload));
+
+        return new TokenUtil.TokenData(PREFIX + encodedPayload + "." + signature, null, userId, expiry);
+    }
+
+    /**
+     * Returns the verified claims, or null if the token is malformed, has a bad
+     * signature, is for another scope or has expired.
+     */
+    public Claims verify(CharSequence token, String scope) {
+        if (mac == null || !isSigned(token)) {
+            return null;
+        }
+
+        String value = token.toString();
+        int dot = value.indexOf('.', PREFIX.length());
+        if (dot < 0) {
+            return null;
+        }
+
+        String encodedPayload = value.substring(PREFIX.length(), dot);
+        byte[] signature;
+        String[] fields;
+        try {
+            signature = decoder.decode(value.substring(dot + 1));
+            fields = new String(decoder.decode(encodedPayload), StandardCharsets.UTF_8).split("\\|", 5);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+
+        if (!MessageDigest.isEqual(signature, sign(encodedPayload)) || fields.length != 5) {
+            return null;
+        }
+
+        try {
+            long expiry = Long.parseLong(fields[3]);
+            if (!scope.equals(fields[1]) || Instant.now().getEpochSecond() >= expiry) {
+                return null;
+            }
+            return new Claims(new UserPrincipal(Long.parseLong(fields[0]), fields[4]), Long.parseLong(fields[2]));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private byte[] sign(String encodedPayload) {
+        Mac instance = mac.acquire();
+        try {
+            return instance.doFinal(encodedPayload.getBytes(StandardCharsets.US_ASCII));
+        } finally {
+            mac.release(instance);
+        }
+    }
+
+    public static class Claims {
+        private final UserPrincipal principal;
+        private final long issuedAtMillis;
+
+        public Claims(UserPrincipal principal, long issuedAtMillis) {
+            this.principal = principal;
+            this.issuedAtMillis = issuedAtMillis;
+        }
+
+        public UserPrincipal getPrincipal() {
+            return principal;
+        }
+
+        public long getIssuedAtMillis() {
+            return issuedAtMillis;
+        }
+    }
+}
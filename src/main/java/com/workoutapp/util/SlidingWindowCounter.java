@@ -0,0 +1,78 @@
+package com.workoutapp.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free approximate sliding window counter. The window is split into
+ * buckets; each slot packs the bucket's epoch (high 32 bits) and its count
+ * (low 32 bits) into one long so it can be reset and incremented with a CAS.
+ */
+public class SlidingWindowCounter {
+    private static final long COUNT_MASK = 0xFFFFFFFFL;
+
+    private final AtomicLongArray buckets;
+    private final long bucketMillis;
+
+    public SlidingWindowCounter(long windowMillis, int bucketCount) {
+        this.buckets = new AtomicLongArray(bucketCount);
+        this.bucketMillis = Math.max(1, windowMillis / bucketCount);
+    }
+
+    public void increment(long nowMillis) {
+        incrementSlot(nowMillis);
+    }
+
+    /**
+     * Increments and returns the window count including this increment. Racing
+     * callers each see their own increment, so at most max of them observe a
+     * count of max or less.
+     */
+    public long incrementAndCount(long nowMillis) {
+        incrementSlot(nowMillis);
+        return count(nowMillis);
+    }
+
+    /**
+     * Takes back an increment made at incrementedAtMillis. A no-op once that
+     * bucket has left the window, since it no longer counts anyway.
+     */
+    public void decrement(long incrementedAtMillis) {
+        long epoch = (incrementedAtMillis / bucketMillis) & COUNT_MASK;
+        int slot = (int) (epoch % buckets.length());
+        while (true) {
+            long current = buckets.get(slot);
+            if ((current >>> 32) != epoch || (current & COUNT_MASK) == 0) {
+                return;
+            }
+            if (buckets.compareAndSet(slot, current, current - 1)) {
+                return;
+            }
+        }
+    }
+
+    private void incrementSlot(long nowMillis) {
+        long epoch = (nowMillis / bucketMillis) & COUNT_MASK;
+        int slot = (int) (epoch % buckets.length());
+        while (true) {
+            long current = buckets.get(slot);
+            long next = (current >>> 32) == epoch ? current + 1 : (epoch << 32) | 1;
+            if (buckets.compareAndSet(slot, current, next)) {
+                return;
+            }
+        }
+    }
+
+    public long count(long nowMillis) {
+        long epoch = (nowMillis / bucketMillis) & COUNT_MASK;
+        long total = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            long value = buckets.get(i);
+            // Slots last written more than a window ago are stale
+            long age = (epoch - (value >>> 32)) & COUNT_MASK;
+            if (age < buckets.length()) {
+                total += value & COUNT_MASK;
+            }
+        }
+        return total;
+    }
+}
@@ -2,8 +2,6 @@ package com.workoutapp.util;
 
 import org.springframework.stereotype.Component;
 
-import org.apache.commons.codec.binary.Base32;
-
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
@@ -14,38 +12,97 @@ import java.time.LocalDateTime;
 public class TokenUtil {
     public static final String SCOPE_AUTH = "authentication";
 
+    private static final int TOKEN_BYTES = 32;
+    private static final int MAX_ASCII_TOKEN_LENGTH = 256;
+    private static final byte[] BASE32_ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZ234567".getBytes(StandardCharsets.US_ASCII);
+
+    private static final SecureRandom secureRandom = new SecureRandom();
+
+    private static final InstancePool<MessageDigest> sha256 = new InstancePool<>(
+            Runtime.getRuntime().availableProcessors() * 2, TokenUtil::newSha256);
+
     public TokenData generateToken(Long userId, long ttlHours) {
-        try {
-            // Generate random bytes
-            byte[] randomBytes = new byte[32];
-            SecureRandom secureRandom = new SecureRandom();
-            secureRandom.nextBytes(randomBytes);
+        // Generate random bytes
+        byte[] randomBytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(randomBytes);
 
-            // Encode to base32
-            Base32 base32 = new Base32();
-            String plaintext = base32.encodeAsString(randomBytes).replace("=", "");
+        // Encode to unpadded base32 (RFC 4648 alphabet)
+        byte[] encoded = encodeBase32(randomBytes);
+        String plaintext = new String(encoded, StandardCharsets.US_ASCII);
 
-            // Hash the token
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(plaintext.getBytes(StandardCharsets.UTF_8));
+        // Hash the token; ASCII bytes are identical to the UTF-8 encoding
+        byte[] hash = digest(encoded, encoded.length);
 
-            LocalDateTime expiry = LocalDateTime.now().plusHours(ttlHours);
+        LocalDateTime expiry = LocalDateTime.now().plusHours(ttlHours);
 
-            return new TokenData(plaintext, hash, userId, expiry);
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("Failed to generate token", e);
+        return new TokenData(plaintext, hash, userId, expiry);
+    }
+
+    /**
+     * Returns the SHA-256 of the token's UTF-8 bytes. ASCII tokens are copied
+     * straight from the chars into a byte array without building a String.
+     */
+    public byte[] hashToken(CharSequence plaintextToken) {
+        int length = plaintextToken.length();
+        if (length <= MAX_ASCII_TOKEN_LENGTH) {
+            byte[] buffer = new byte[length];
+            boolean ascii = true;
+            for (int i = 0; i < length; i++) {
+                char c = plaintextToken.charAt(i);
+                if (c >= 0x80) {
+                    ascii = false;
+                    break;
+                }
+                buffer[i] = (byte) c;
+            }
+            if (ascii) {
+                return digest(buffer, length);
+            }
+        }
+
+        byte[] bytes = plaintextToken.toString().getBytes(StandardCharsets.UTF_8);
+        return digest(bytes, bytes.length);
+    }
+
+    private static byte[] digest(byte[] input, int length) {
+        MessageDigest digest = sha256.acquire();
+        try {
+            digest.update(input, 0, length);
+            return digest.digest();
+        } finally {
+            sha256.release(digest);
         }
     }
 
-    public byte[] hashToken(String plaintextToken) {
+    private static MessageDigest newSha256() {
         try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            return digest.digest(plaintextToken.getBytes(StandardCharsets.UTF_8));
+            return MessageDigest.getInstance("SHA-256");
         } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("Failed to hash token", e);
+            throw new IllegalStateException("SHA-256 is not available", e);
         }
     }
 
+    static byte[] encodeBase32(byte[] data) {
+        byte[] out = new byte[(data.length * 8 + 4) / 5];
+        int buffer = 0;
+        int bits = 0;
+        int index = 0;
+
+        for (byte b : data) {
+            buffer = (buffer << 8) | (b & 0xFF);
+            bits += 8;
+            while (bits >= 5) {
+                out[index++] = BASE32_ALPHABET[(buffer >>> (bits - 5)) & 0x1F];
+                bits -= 5;
+            }
+        }
+        if (bits > 0) {
+            out[index] = BASE32_ALPHABET[(buffer << (5 - bits)) & 0x1F];
+        }
+
+        return out;
+    }
+
     public static class TokenData {
         private final String plaintext;
         private final byte[] hash;
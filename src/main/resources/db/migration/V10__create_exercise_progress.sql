@@ -0,0 +1,19 @@
+CREATE TABLE IF NOT EXISTS exercise_progress (
+  user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+  exercise_name VARCHAR(255) NOT NULL,
+  day DATE NOT NULL,
+  total_sets BIGINT NOT NULL DEFAULT 0,
+  max_weight DECIMAL(5, 2),
+  best_reps INTEGER,
+  total_volume NUMERIC(14, 2) NOT NULL DEFAULT 0,
+  PRIMARY KEY (user_id, exercise_name, day)
+);
+
+-- Backfill from existing entries; a workout's entries count towards the day it was created
+INSERT INTO exercise_progress (user_id, exercise_name, day, total_sets, max_weight, best_reps, total_volume)
+SELECT w.user_id, e.exercise_name, CAST(w.created_at AS DATE), SUM(e.sets), MAX(e.weight), MAX(e.reps),
+       COALESCE(SUM(e.sets * e.reps * e.weight), 0)
+FROM workout_entries e
+JOIN workouts w ON w.id = e.workout_id
+GROUP BY w.user_id, e.exercise_name, CAST(w.created_at AS DATE)
+ON CONFLICT DO NOTHING;
@@ -0,0 +1,12 @@
+ALTER TABLE workouts ADD COLUMN IF NOT EXISTS search_vector tsvector;
+
+-- Title ranks highest, then exercise names, description and entry notes
+UPDATE workouts w SET search_vector =
+  setweight(to_tsvector('english', coalesce(w.title, '')), 'A') ||
+  setweight(to_tsvector('english', coalesce(
+    (SELECT string_agg(e.exercise_name, ' ') FROM workout_entries e WHERE e.workout_id = w.id), '')), 'B') ||
+  setweight(to_tsvector('english', coalesce(w.description, '')), 'C') ||
+  setweight(to_tsvector('english', coalesce(
+    (SELECT string_agg(e.notes, ' ') FROM workout_entries e WHERE e.workout_id = w.id), '')), 'D');
+
+CREATE INDEX IF NOT EXISTS idx_workouts_search_vector ON workouts USING GIN (search_vector);
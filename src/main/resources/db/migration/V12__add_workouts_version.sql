@@ -0,0 +1,2 @@
+-- Optimistic locking counter, bumped on every update; also the basis of the workout ETag
+ALTER TABLE workouts ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
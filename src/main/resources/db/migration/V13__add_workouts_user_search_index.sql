@@ -0,0 +1,7 @@
+-- Searches are always scoped to one user, so index user_id with the vector.
+-- btree_gin provides the GIN operator class for the bigint column.
+CREATE EXTENSION IF NOT EXISTS btree_gin;
+
+CREATE INDEX IF NOT EXISTS idx_workouts_user_id_search_vector ON workouts USING GIN (user_id, search_vector);
+
+DROP INDEX IF EXISTS idx_workouts_search_vector;
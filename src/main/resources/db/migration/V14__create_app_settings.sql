@@ -0,0 +1,5 @@
+-- Values that must agree across all nodes, such as the calibrated BCrypt cost
+CREATE TABLE IF NOT EXISTS app_settings (
+  name TEXT PRIMARY KEY,
+  value TEXT NOT NULL
+);
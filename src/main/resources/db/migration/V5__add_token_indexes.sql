@@ -0,0 +1,2 @@
+CREATE INDEX IF NOT EXISTS idx_tokens_expiry ON tokens (expiry);
+CREATE INDEX IF NOT EXISTS idx_tokens_user_id_scope ON tokens (user_id, scope);
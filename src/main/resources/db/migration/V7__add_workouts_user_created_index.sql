@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS idx_workouts_user_id_created_at_id ON workouts (user_id, created_at DESC, id DESC);
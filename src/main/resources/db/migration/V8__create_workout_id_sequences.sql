@@ -0,0 +1,8 @@
+-- Sequences for Hibernate's pooled optimizer (allocationSize = 50), which allows
+-- JDBC insert batching. They start past the existing ids; the BIGSERIAL defaults
+-- stay in place but are no longer used by the application.
+CREATE SEQUENCE IF NOT EXISTS workouts_seq INCREMENT BY 50;
+SELECT setval('workouts_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM workouts), 1));
+
+CREATE SEQUENCE IF NOT EXISTS workout_entries_seq INCREMENT BY 50;
+SELECT setval('workout_entries_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM workout_entries), 1));
@@ -0,0 +1,21 @@
+CREATE TABLE IF NOT EXISTS user_stats_rollups (
+  user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+  period TEXT NOT NULL,
+  period_start DATE NOT NULL,
+  workout_count BIGINT NOT NULL DEFAULT 0,
+  total_duration_minutes BIGINT NOT NULL DEFAULT 0,
+  total_calories_burned BIGINT NOT NULL DEFAULT 0,
+  PRIMARY KEY (user_id, period, period_start)
+);
+
+-- Backfill from existing workouts
+INSERT INTO user_stats_rollups (user_id, period, period_start, workout_count, total_duration_minutes, total_calories_burned)
+SELECT user_id, 'all', DATE '1970-01-01', COUNT(*), SUM(duration_minutes), SUM(calories_burned)
+FROM workouts GROUP BY user_id
+UNION ALL
+SELECT user_id, 'week', CAST(date_trunc('week', created_at) AS DATE), COUNT(*), SUM(duration_minutes), SUM(calories_burned)
+FROM workouts GROUP BY user_id, CAST(date_trunc('week', created_at) AS DATE)
+UNION ALL
+SELECT user_id, 'month', CAST(date_trunc('month', created_at) AS DATE), COUNT(*), SUM(duration_minutes), SUM(calories_burned)
+FROM workouts GROUP BY user_id, CAST(date_trunc('month', created_at) AS DATE)
+ON CONFLICT DO NOTHING;
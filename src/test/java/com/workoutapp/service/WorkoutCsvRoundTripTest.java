@@ -0,0 +1,70 @@
+package com.workoutapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.workoutapp.dto.ImportReport;
+import com.workoutapp.dto.WorkoutEntryResponse;
+import com.workoutapp.dto.WorkoutResponse;
+import com.workoutapp.model.Workout;
+import com.workoutapp.model.WorkoutEntry;
+import com.workoutapp.repository.WorkoutExportRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class WorkoutCsvRoundTripTest {
+
+    @Test
+    void exportedLineBreaksSurviveReimport() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        WorkoutResponse workout = new WorkoutResponse(7L, 1L, "Leg day", "Squats first,\r\nthen lunges",
+                45, 400, List.of(
+                        new WorkoutEntryResponse(7L, 1L, "Squat", 5, 5, null, 100.0, "Felt \"heavy\"\nkeep weight", 0, now),
+                        new WorkoutEntryResponse(7L, 2L, "Lunge", 3, 10, null, null, null, 1, now)),
+                now, now, 0L);
+
+        WorkoutExportRepository exportRepository = mock(WorkoutExportRepository.class);
+        doAnswer(invocation -> {
+            Consumer<WorkoutResponse> consumer = invocation.getArgument(1);
+            consumer.accept(workout);
+            return null;
+        }).when(exportRepository).forEachWorkout(eq(1L), any());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new WorkoutExportService(exportRepository, new ObjectMapper()).exportCsv(1L, out);
+
+        List<Workout> saved = new ArrayList<>();
+        WorkoutBatchWriter batchWriter = mock(WorkoutBatchWriter.class);
+        when(batchWriter.insert(anyList())).thenAnswer(invocation -> {
+            List<Workout> chunk = invocation.getArgument(0);
+            saved.addAll(chunk);
+            return new boolean[] {true};
+        });
+        WorkoutImportService importService = new WorkoutImportService(batchWriter, new ObjectMapper(),
+                Validation.buildDefaultValidatorFactory().getValidator(), 500, 100, 1048576, 200);
+
+        ImportReport report = importService.importCsv(new ByteArrayInputStream(out.toByteArray()), 1L);
+
+        assertEquals(1, report.getImported(), () -> String.valueOf(report.getErrors()));
+        assertEquals(0, report.getFailed());
+        Workout imported = saved.get(0);
+        assertEquals("Squats first,\r\nthen lunges", imported.getDescription());
+        List<WorkoutEntry> entries = imported.getEntries();
+        assertEquals(2, entries.size());
+        assertEquals("Felt \"heavy\"\nkeep weight", entries.get(0).getNotes());
+        assertEquals("Lunge", entries.get(1).getExerciseName());
+    }
+}
@@ -0,0 +1,128 @@
+package com.workoutapp.service;
+
+import com.workoutapp.model.Workout;
+import com.workoutapp.model.WorkoutEntry;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.stat.EntityStatistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class WorkoutEntryMergeTest {
+    private SessionFactory sessionFactory;
+
+    @BeforeEach
+    void setUp() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Workout.class)
+                .addAnnotatedClass(WorkoutEntry.class)
+                .setProperty("hibernate.connection.url", "jdbc:h2:mem:merge;DB_CLOSE_DELAY=-1")
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .setProperty("hibernate.generate_statistics", "true")
+                .buildSessionFactory();
+    }
+
+    @AfterEach
+    void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Test
+    void mergeWritesOnlyChangedRows() {
+        Long workoutId = sessionFactory.fromTransaction(session -> {
+            Workout workout = new Workout();
+            workout.setUserId(1L);
+            workout.setTitle("Push day");
+            workout.setDurationMinutes(60);
+            workout.setCaloriesBurned(500);
+            workout.getEntries().add(entry(workout, null, "Bench", 10, 0));
+            workout.getEntries().add(entry(workout, null, "Dips", 12, 1));
+            workout.getEntries().add(entry(workout, null, "Press", 8, 2));
+            session.persist(workout);
+            return workout.getId();
+        });
+        List<Long> ids = sessionFactory.fromTransaction(session ->
+                entryIds(session.get(Workout.class, workoutId)));
+
+        sessionFactory.getStatistics().clear();
+        sessionFactory.inTransaction(session -> {
+            Workout workout = session.get(Workout.class, workoutId);
+            List<WorkoutEntry> requested = new ArrayList<>();
+            requested.add(entry(null, ids.get(0), "Bench", 10, 0));  // unchanged
+            requested.add(entry(null, ids.get(1), "Dips", 15, 1));   // reps changed
+            requested.add(entry(null, null, "Flyes", 12, 2));        // reuses the Press row
+            WorkoutService.mergeEntries(workout, requested);
+        });
+
+        EntityStatistics entries = sessionFactory.getStatistics().getEntityStatistics(WorkoutEntry.class.getName());
+        assertEquals(2, entries.getUpdateCount());
+        assertEquals(0, entries.getInsertCount());
+        assertEquals(0, entries.getDeleteCount());
+
+        List<String> names = sessionFactory.fromTransaction(session -> {
+            List<String> result = new ArrayList<>();
+            for (WorkoutEntry entry : session.get(Workout.class, workoutId).getEntries()) {
+                result.add(entry.getExerciseName() + ":" + entry.getReps());
+            }
+            return result;
+        });
+        assertEquals(List.of("Bench:10", "Dips:15", "Flyes:12"), names);
+    }
+
+    @Test
+    void mergeInsertsAndDeletesUnmatchedRows() {
+        Long workoutId = sessionFactory.fromTransaction(session -> {
+            Workout workout = new Workout();
+            workout.setUserId(1L);
+            workout.setTitle("Pull day");
+            workout.setDurationMinutes(45);
+            workout.setCaloriesBurned(300);
+            workout.getEntries().add(entry(workout, null, "Rows", 10, 0));
+            workout.getEntries().add(entry(workout, null, "Curls", 12, 1));
+            session.persist(workout);
+            return workout.getId();
+        });
+        List<Long> ids = sessionFactory.fromTransaction(session ->
+                entryIds(session.get(Workout.class, workoutId)));
+
+        sessionFactory.getStatistics().clear();
+        sessionFactory.inTransaction(session -> {
+            Workout workout = session.get(Workout.class, workoutId);
+            List<WorkoutEntry> requested = new ArrayList<>();
+            requested.add(entry(null, ids.get(0), "Rows", 10, 0));      // unchanged
+            requested.add(entry(null, null, "Pull-ups", 8, 5));         // new order_index
+            WorkoutService.mergeEntries(workout, requested);
+        });
+
+        EntityStatistics entries = sessionFactory.getStatistics().getEntityStatistics(WorkoutEntry.class.getName());
+        assertEquals(0, entries.getUpdateCount());
+        assertEquals(1, entries.getInsertCount());
+        assertEquals(1, entries.getDeleteCount());
+    }
+
+    private static WorkoutEntry entry(Workout workout, Long id, String name, int reps, int orderIndex) {
+        WorkoutEntry entry = new WorkoutEntry();
+        entry.setId(id);
+        entry.setWorkout(workout);
+        entry.setExerciseName(name);
+        entry.setSets(3);
+        entry.setReps(reps);
+        entry.setOrderIndex(orderIndex);
+        return entry;
+    }
+
+    private static List<Long> entryIds(Workout workout) {
+        List<Long> ids = new ArrayList<>();
+        for (WorkoutEntry entry : workout.getEntries()) {
+            ids.add(entry.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,49 @@
+package com.workoutapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.workoutapp.dto.WorkoutResponse;
+import com.workoutapp.repository.WorkoutExportRepository;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class WorkoutExportServiceTest {
+
+    @Test
+    void ndjsonWritesOneObjectPerLine() throws Exception {
+        LocalDateTime now = LocalDateTime.of(2024, 1, 15, 10, 30);
+        WorkoutExportRepository exportRepository = mock(WorkoutExportRepository.class);
+        doAnswer(invocation -> {
+            Consumer<WorkoutResponse> consumer = invocation.getArgument(1);
+            for (long id = 1; id <= 3; id++) {
+                consumer.accept(new WorkoutResponse(id, 1L, "Workout " + id, null, 30, 200, List.of(),
+                        now, now, 0L));
+            }
+            return null;
+        }).when(exportRepository).forEachWorkout(eq(1L), any());
+
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new WorkoutExportService(exportRepository, objectMapper).exportNdjson(1L, out);
+
+        String body = out.toString(StandardCharsets.UTF_8);
+        assertTrue(body.endsWith("\n"));
+        String[] lines = body.split("\n");
+        assertEquals(3, lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            assertTrue(lines[i].startsWith("{"), () -> "line starts with a separator: " + body);
+            assertEquals(i + 1, objectMapper.readTree(lines[i]).get("id").asLong());
+        }
+    }
+}
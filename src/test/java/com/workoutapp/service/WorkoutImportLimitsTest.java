@@ -0,0 +1,62 @@
+package com.workoutapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.workoutapp.dto.ImportReport;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class WorkoutImportLimitsTest {
+    private final WorkoutBatchWriter batchWriter = mock(WorkoutBatchWriter.class);
+    private final WorkoutImportService importService = new WorkoutImportService(batchWriter, new ObjectMapper(),
+            Validation.buildDefaultValidatorFactory().getValidator(), 500, 100, 200, 2);
+
+    WorkoutImportLimitsTest() {
+        when(batchWriter.insert(anyList())).thenAnswer(invocation -> {
+            List<?> chunk = invocation.getArgument(0);
+            return new boolean[chunk.size()];
+        });
+    }
+
+    @Test
+    void ndjsonLineOverLimitIsReportedAndSkipped() throws Exception {
+        String body = "{\"title\":\"" + "x".repeat(300) + "\"}\n"
+                + "not json\n";
+
+        ImportReport report = importService.importNdjson(stream(body), 1L);
+
+        assertEquals(2, report.getFailed());
+        assertEquals(1, report.getErrors().get(0).getLine());
+        assertEquals("line is longer than 200 characters", report.getErrors().get(0).getError());
+        assertEquals(2, report.getErrors().get(1).getLine());
+    }
+
+    @Test
+    void csvRecordAndEntryLimitsAreReportedAsRowErrors() throws Exception {
+        String body = "workout,title,duration_minutes,calories_burned,exercise_name,sets,reps\n"
+                + "1,Long,30,100,Squat,3,\"" + "x\n".repeat(150) + "\"\n"
+                + "2,Busy,30,100,Squat,3,5\n"
+                + "2,Busy,30,100,Lunge,3,5\n"
+                + "2,Busy,30,100,Row,3,5\n";
+
+        ImportReport report = importService.importCsv(stream(body), 1L);
+
+        assertEquals(2, report.getFailed());
+        assertEquals(2, report.getErrors().get(0).getLine());
+        assertEquals("record is longer than 200 characters", report.getErrors().get(0).getError());
+        assertEquals(153, report.getErrors().get(1).getLine());
+        assertEquals("workout has more than 2 entries", report.getErrors().get(1).getError());
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
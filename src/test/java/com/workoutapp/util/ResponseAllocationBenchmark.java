@@ -0,0 +1,53 @@
+package com.workoutapp.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.workoutapp.dto.WorkoutResponse;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Bytes allocated per response by JsonResponse and ErrorBody against the
+ * HashMap envelope they replaced. Not part of the regular test run, since the
+ * numbers depend on the JDK and JIT; run it explicitly with
+ * mvn test -Dtest=ResponseAllocationBenchmark
+ */
+class ResponseAllocationBenchmark {
+    private static final int WARMUP = 200_000;
+    private static final int ITERATIONS = 1_000_000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final WorkoutResponse workout = ResponseEncodingTest.workout();
+
+    @Test
+    void measure() throws Exception {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        report(threads, "workout envelope, map",
+                () -> objectMapper.writeValueAsBytes(ResponseEncodingTest.MapEnvelope.of("workout", workout)));
+        report(threads, "workout envelope, JsonResponse",
+                () -> objectMapper.writeValueAsBytes(JsonResponse.of("workout", workout)));
+        report(threads, "error body, map",
+                () -> objectMapper.writeValueAsBytes(ResponseEncodingTest.MapEnvelope.of("error", "workout not found")));
+        report(threads, "error body, constant", () -> ErrorBody.of("workout not found"));
+        report(threads, "error body, other message", () -> ErrorBody.of("invalid value for limit"));
+    }
+
+    private static void report(com.sun.management.ThreadMXBean threads, String name, Callable<Object> call)
+            throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            call.call();
+        }
+        long thread = Thread.currentThread().getId();
+        long start = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < ITERATIONS; i++) {
+            call.call();
+        }
+        long perCall = (threads.getThreadAllocatedBytes(thread) - start) / ITERATIONS;
+        System.out.printf("%-32s %6d B/request%n", name, perCall);
+    }
+}
@@ -0,0 +1,73 @@
+package com.workoutapp.util;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.workoutapp.dto.WorkoutEntryResponse;
+import com.workoutapp.dto.WorkoutResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+/**
+ * JsonResponse and ErrorBody must write exactly what the HashMap +
+ * @JsonAnyGetter envelope they replaced wrote through Jackson.
+ */
+class ResponseEncodingTest {
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    void envelopeMatchesMapEnvelope() throws Exception {
+        WorkoutResponse workout = workout();
+        assertEquals(objectMapper.writeValueAsString(MapEnvelope.of("workout", workout)),
+                objectMapper.writeValueAsString(JsonResponse.of("workout", workout)));
+
+        MapEnvelope page = MapEnvelope.of("workouts", List.of(workout));
+        page.data.put("next_cursor", null);
+        assertEquals(objectMapper.readTree(objectMapper.writeValueAsString(page)),
+                objectMapper.readTree(objectMapper.writeValueAsString(
+                        JsonResponse.of("workouts", List.of(workout)).and("next_cursor", null))));
+    }
+
+    @Test
+    void constantErrorBodyMatchesMapEnvelope() throws Exception {
+        assertArrayEquals(objectMapper.writeValueAsBytes(MapEnvelope.of("error", "workout not found")),
+                ErrorBody.of("workout not found"));
+    }
+
+    @Test
+    void otherErrorMessagesAreEscapedAndNotCached() throws Exception {
+        String message = "bad \"value\"\n\u0001";
+        assertArrayEquals(objectMapper.writeValueAsBytes(MapEnvelope.of("error", message)), ErrorBody.of(message));
+        assertNotSame(ErrorBody.of(message), ErrorBody.of(message));
+    }
+
+    static WorkoutResponse workout() {
+        LocalDateTime now = LocalDateTime.of(2024, 1, 15, 10, 30);
+        return new WorkoutResponse(1L, 2L, "Push Day", "Chest and triceps", 45, 400,
+                List.of(new WorkoutEntryResponse(1L, 3L, "Bench Press", 3, 10, null, 80.0, null, 0, now)),
+                now, now, 0L);
+    }
+
+    // The envelope JsonResponse replaced
+    static class MapEnvelope {
+        private final Map<String, Object> data = new HashMap<>();
+
+        static MapEnvelope of(String key, Object value) {
+            MapEnvelope envelope = new MapEnvelope();
+            envelope.data.put(key, value);
+            return envelope;
+        }
+
+        @JsonAnyGetter
+        public Map<String, Object> getData() {
+            return data;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.workoutapp.util;
+
+import org.apache.commons.codec.binary.Base32;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Stored token hashes were computed over commons-codec Base32 output, so the
+ * built-in encoder and hashing must stay byte-identical to it.
+ */
+class TokenUtilTest {
+    private final TokenUtil tokenUtil = new TokenUtil();
+    private final Random random = new Random(42);
+
+    @Test
+    void base32MatchesCommonsCodecForAllLengths() {
+        Base32 reference = new Base32();
+        for (int length = 0; length <= 64; length++) {
+            for (int sample = 0; sample < 20; sample++) {
+                byte[] data = new byte[length];
+                random.nextBytes(data);
+                String expected = reference.encodeAsString(data).replace("=", "");
+                assertEquals(expected, new String(TokenUtil.encodeBase32(data), StandardCharsets.US_ASCII),
+                        "length " + length);
+            }
+        }
+    }
+
+    @Test
+    void generatedTokenHashMatchesBaseline() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            TokenUtil.TokenData token = tokenUtil.generateToken(1L, 1);
+            assertEquals(52, token.getPlaintext().length());
+            assertArrayEquals(baselineHash(token.getPlaintext()), token.getHash());
+            assertArrayEquals(token.getHash(), tokenUtil.hashToken(token.getPlaintext()));
+        }
+    }
+
+    @Test
+    void hashTokenMatchesBaselineForAnyInput() throws Exception {
+        for (String token : new String[]{"", "ABC", "token with spaces", "café", "☃".repeat(10),
+                "A".repeat(256), "A".repeat(257), "é".repeat(300)}) {
+            assertArrayEquals(baselineHash(token), tokenUtil.hashToken(token), token);
+            assertArrayEquals(baselineHash(token), tokenUtil.hashToken(new StringBuilder(token)), token);
+        }
+    }
+
+    private static byte[] baselineHash(String token) throws Exception {
+        return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+    }
+}